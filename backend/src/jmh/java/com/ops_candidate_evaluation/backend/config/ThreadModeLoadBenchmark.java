@@ -0,0 +1,181 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import com.ops_candidate_evaluation.backend.BackendApplication;
+import com.ops_candidate_evaluation.backend.importer.BenchDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code clients} concurrent HTTP clients against the running application,
+ * once with Tomcat on its platform-thread pool and once with
+ * {@code spring.threads.virtual.enabled}. {@code slowPercent}% of the clients
+ * call the live q3 (seconds of database time each). The rest are split
+ * between an employee lookup (one short query) and the department list
+ * (served from the reference cache, no database).
+ * <p>
+ * {@link #wave} sends one request per client and scores the time for the
+ * whole wave. {@link #cheapCall} keeps the same mix in flight and samples
+ * the latency of single cheap calls in it, so JMH reports their percentiles.
+ * That is where queuing behind slow requests shows.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ThreadModeLoadBenchmark {
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "1000" })
+    public int clients;
+
+    @Param({ "2" })
+    public int slowPercent;
+
+    // employees seeded when the database has fewer
+    @Param({ "50000" })
+    public int employees;
+
+    // JMH threads sampling cheap calls; the background load makes up the other clients
+    static final int SAMPLERS = 16;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientThreads;
+    private HttpClient http;
+    private String base;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, Object> props = BenchDatabase.properties();
+        props.put("server.port", "0");
+        props.put("spring.threads.virtual.enabled", String.valueOf("virtual".equals(threads)));
+        props.put("app.import.path", "bench-no-boot-import");
+        props.put("logging.level.root", "WARN");
+        context = new SpringApplicationBuilder(BackendApplication.class).properties(props).run();
+        seed(context.getBean(JdbcTemplate.class));
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Integer have = jdbc.queryForObject("SELECT count(*) FROM employee", Integer.class);
+        if (have != null && have >= employees)
+            return;
+        jdbc.update("INSERT INTO location (code, name) SELECT 'BL' || g, 'Bench location ' || g "
+                + "FROM generate_series(1, 20) g WHERE NOT EXISTS (SELECT 1 FROM location WHERE code = 'BL' || g)");
+        jdbc.update("INSERT INTO department (code, name) SELECT 'BD' || g, 'Bench department ' || g "
+                + "FROM generate_series(1, 25) g WHERE NOT EXISTS (SELECT 1 FROM department WHERE code = 'BD' || g)");
+        jdbc.update("INSERT INTO employee (emp_no, name, dept_code, location_id, position, salary) "
+                + "SELECT 'BE' || lpad(g::text, 8, '0'), 'Bench employee ' || g, 'BD' || (g % 25 + 1), "
+                + "(SELECT min(id) FROM location) + g % 20, 'Staff', 3000 + (g * 7919) % 5000 "
+                + "FROM generate_series(1, ?) g", employees - (have == null ? 0 : have));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int wave() {
+        int slow = clients * slowPercent / 100;
+        List<CompletableFuture<Integer>> calls = new ArrayList<>(clients);
+        for (int client = 0; client < clients; client++)
+            calls.add(http.sendAsync(request(path(client, slow)), HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode));
+        int failures = 0;
+        for (CompletableFuture<Integer> call : calls)
+            if (call.join() >= 500)
+                failures++;
+        return failures;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Warmup(iterations = 2, time = 10)
+    @Measurement(iterations = 5, time = 10)
+    @Threads(SAMPLERS)
+    public int cheapCall(Load load) throws Exception {
+        String path = ThreadLocalRandom.current().nextBoolean()
+                ? "/api/employee/" + ThreadLocalRandom.current().nextInt(1, 501)
+                : "/api/department";
+        return http.send(request(path), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * The other {@code clients - SAMPLERS} clients for {@link #cheapCall}, in
+     * the wave's mix: each sends its next request as soon as the last one
+     * returns. Drained after every iteration so iterations do not overlap.
+     */
+    @State(Scope.Benchmark)
+    public static class Load {
+
+        private volatile boolean running;
+        private Phaser inFlight;
+
+        @Setup(Level.Iteration)
+        public void start(ThreadModeLoadBenchmark bench) {
+            int clients = Math.max(0, bench.clients - SAMPLERS);
+            int slow = bench.clients * bench.slowPercent / 100;
+            running = true;
+            inFlight = new Phaser(1);
+            for (int client = 0; client < clients; client++) {
+                inFlight.register();
+                keep(bench, bench.path(client, slow));
+            }
+        }
+
+        private void keep(ThreadModeLoadBenchmark bench, String path) {
+            bench.http.sendAsync(bench.request(path), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        if (running)
+                            keep(bench, path);
+                        else
+                            inFlight.arriveAndDeregister();
+                    });
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            running = false;
+            inFlight.arriveAndAwaitAdvance();
+        }
+    }
+
+    // the first slow clients call the live q3, the others alternate between the cheap calls
+    private String path(int client, int slow) {
+        return client < slow ? "/api/query/q3?impl=live&stream=true"
+                : client % 2 == 0 ? "/api/employee/" + (client % 500 + 1)
+                : "/api/department";
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        clientThreads.close();
+        context.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Database used by the end-to-end benchmarks: the server given by
+ * {@code -Dbench.jdbc.url} (plus {@code bench.jdbc.username}/{@code password}),
+ * or an embedded PostgreSQL started once per benchmark JVM.
+ */
+public final class BenchDatabase {
+
+    private static EmbeddedPostgres embedded;
+
+    private BenchDatabase() {
+    }
+
+    /** Spring datasource properties pointing at the benchmark database. */
+    public static synchronized Map<String, Object> properties() throws IOException {
+        Map<String, Object> props = new HashMap<>();
+        String url = System.getProperty("bench.jdbc.url");
+        if (url != null) {
+            props.put("spring.datasource.url", url);
+            props.put("spring.datasource.username", System.getProperty("bench.jdbc.username", "postgres"));
+            props.put("spring.datasource.password", System.getProperty("bench.jdbc.password", "postgres"));
+            return props;
+        }
+        if (embedded == null) {
+            embedded = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    embedded.close();
+                } catch (IOException ignore) {
+                }
+            }));
+        }
+        props.put("spring.datasource.url", embedded.getJdbcUrl("postgres", "postgres"));
+        props.put("spring.datasource.username", "postgres");
+        props.put("spring.datasource.password", "postgres");
+        return props;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** Per-cell cost of the conversion helpers used by every import row. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CellConversionBenchmark {
+
+    private SheetRow row;
+
+    @Setup
+    public void setup() {
+        row = new SheetRow(1, new Object[] { "  E00012345 ", 102.0, 8346000.5, Boolean.TRUE, "1,234.50", "   ", null });
+    }
+
+    @Benchmark
+    public String cellStringText() {
+        return Cells.cellString(row, 0);
+    }
+
+    @Benchmark
+    public String cellStringWholeNumber() {
+        return Cells.cellString(row, 1);
+    }
+
+    @Benchmark
+    public String cellStringDecimal() {
+        return Cells.cellString(row, 2);
+    }
+
+    @Benchmark
+    public String cellStringBoolean() {
+        return Cells.cellString(row, 3);
+    }
+
+    @Benchmark
+    public BigDecimal cellNumericDouble() {
+        return Cells.cellNumeric(row, 2);
+    }
+
+    @Benchmark
+    public BigDecimal cellNumericText() {
+        return Cells.cellNumeric(row, 4);
+    }
+
+    @Benchmark
+    public BigDecimal cellNumericMissing() {
+        return Cells.cellNumeric(row, 6);
+    }
+
+    @Benchmark
+    public String nullableText() {
+        return Cells.nullable(Cells.cellString(row, 0));
+    }
+
+    @Benchmark
+    public String nullableBlank() {
+        return Cells.nullable((String) row.get(5));
+    }
+}
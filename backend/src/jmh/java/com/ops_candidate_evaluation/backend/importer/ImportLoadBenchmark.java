@@ -0,0 +1,70 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import com.ops_candidate_evaluation.backend.BackendApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end import of the four synthetic workbooks into PostgreSQL through
+ * the real {@link ImportPipeline} bean. Tables are truncated before every
+ * iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ImportLoadBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    @Param({ "copy", "batch" })
+    public String writer;
+
+    private ConfigurableApplicationContext context;
+    private ImportPipeline pipeline;
+    private JdbcTemplate jdbc;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = SyntheticWorkbooks.dir(rows);
+        Map<String, Object> props = BenchDatabase.properties();
+        props.put("app.import.path", "bench-no-boot-import");
+        props.put("app.import.writer", writer);
+        props.put("logging.level.root", "WARN");
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(props)
+                .run();
+        pipeline = context.getBean(ImportPipeline.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbc.execute("TRUNCATE employee, location, department, tier, import_checkpoint, import_reject RESTART IDENTITY");
+    }
+
+    @Benchmark
+    public ImportReport importAll() {
+        ImportReport report = pipeline.run(dir);
+        if (report.isFailed())
+            throw new IllegalStateException(report.toString());
+        return report;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Whole-sheet parse of employee.xlsx, converting every cell, without touching the database. */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SheetParseBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    @Param({ "streaming", "workbook" })
+    public String reader;
+
+    private Path file;
+    private SheetReader sheetReader;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        file = SyntheticWorkbooks.dir(rows).resolve("employee.xlsx");
+        sheetReader = SheetReader.forMode(reader);
+    }
+
+    @Benchmark
+    public void parseEmployees(Blackhole bh) throws Exception {
+        sheetReader.read(file, r -> {
+            bh.consume(Cells.nullable(Cells.cellString(r, 0)));
+            bh.consume(Cells.nullable(Cells.cellString(r, 1)));
+            bh.consume(Cells.nullable(Cells.cellString(r, 2)));
+            bh.consume(Cells.nullable(Cells.cellString(r, 3)));
+            bh.consume(Cells.nullable(Cells.cellString(r, 4)));
+            bh.consume(Cells.cellNumeric(r, 5));
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Writes location/department/tier/employee workbooks in the column layout
+ * {@link ImportPipeline} expects. Files are cached per row count under
+ * {@code target/bench-data/<rows>} and only generated once.
+ *
+ * <p>Standalone: {@code java ... SyntheticWorkbooks 10000 100000 1000000}
+ */
+public final class SyntheticWorkbooks {
+
+    static final int LOCATIONS = 50;
+    static final int DEPARTMENTS = 25;
+    static final int TIERS = 6;
+
+    private static final String[] POSITIONS = { "Engineer", "Analyst", "Manager", "Director", "Clerk", "Designer" };
+
+    private SyntheticWorkbooks() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (String a : args)
+            System.out.println(dir(Integer.parseInt(a)));
+    }
+
+    /** Directory holding the four workbooks for {@code employees} employee rows. */
+    public static Path dir(int employees) throws IOException {
+        Path dir = Paths.get("target", "bench-data", String.valueOf(employees));
+        Path done = dir.resolve(".complete");
+        if (Files.exists(done))
+            return dir;
+        Files.createDirectories(dir);
+        Random rnd = new Random(employees);
+        writeCodes(dir.resolve("location.xlsx"), "LOC", "Location", LOCATIONS);
+        writeCodes(dir.resolve("department.xlsx"), "D", "Department", DEPARTMENTS);
+        writeCodes(dir.resolve("tier.xlsx"), "T", "Tier", TIERS);
+        writeEmployees(dir.resolve("employee.xlsx"), employees, rnd);
+        Files.createFile(done);
+        return dir;
+    }
+
+    private static void writeCodes(Path file, String codePrefix, String namePrefix, int n) throws IOException {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(100)) {
+            Sheet s = wb.createSheet();
+            header(s, "code", "name");
+            for (int i = 1; i <= n; i++) {
+                Row r = s.createRow(i);
+                r.createCell(0).setCellValue(codePrefix + i);
+                r.createCell(1).setCellValue(namePrefix + " " + i);
+            }
+            save(wb, file);
+        }
+    }
+
+    private static void writeEmployees(Path file, int n, Random rnd) throws IOException {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(100)) {
+            wb.setCompressTempFiles(true);
+            Sheet s = wb.createSheet();
+            header(s, "emp_no", "name", "dept_code", "location", "position", "salary");
+            for (int i = 1; i <= n; i++) {
+                Row r = s.createRow(i);
+                r.createCell(0).setCellValue(String.format("E%08d", i));
+                r.createCell(1).setCellValue("Employee " + Integer.toString(rnd.nextInt(), 36));
+                // a few rows without department/location, like real sheets
+                if (rnd.nextInt(50) != 0)
+                    r.createCell(2).setCellValue("D" + (1 + rnd.nextInt(DEPARTMENTS)));
+                if (rnd.nextInt(50) != 0)
+                    r.createCell(3).setCellValue("LOC" + (1 + rnd.nextInt(LOCATIONS)));
+                r.createCell(4).setCellValue(POSITIONS[rnd.nextInt(POSITIONS.length)]);
+                r.createCell(5).setCellValue(1000 + rnd.nextInt(20000) * 5 + (rnd.nextBoolean() ? 0.5 : 0));
+            }
+            save(wb, file);
+        }
+    }
+
+    private static void header(Sheet s, String... names) {
+        Row r = s.createRow(0);
+        for (int i = 0; i < names.length; i++)
+            r.createCell(i).setCellValue(names[i]);
+    }
+
+    private static void save(SXSSFWorkbook wb, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            wb.write(out);
+        }
+        wb.dispose();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.importer.BenchDatabase;
+import com.ops_candidate_evaluation.backend.model.EmployeeMatch;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top 20 matches of a search from the in-memory index against
+ * {@code ILIKE '%q%'} on emp_no and name in PostgreSQL, up to 1M employees.
+ * The SQL has no ORDER BY, so it may stop at its 20th row; the index still
+ * puts prefix matches first. Queries: a common name prefix, a rarer infix,
+ * an emp_no prefix, one character, and nothing that matches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class EmployeeSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({ "100000", "1000000" })
+    public int employees;
+
+    @Param({ "ann", "son 1", "E00012", "m", "qqq" })
+    public String query;
+
+    @Param({ "ilike", "index" })
+    public String impl;
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private EmployeeSearchIndex index;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, Object> props = BenchDatabase.properties();
+        connection = DriverManager.getConnection((String) props.get("spring.datasource.url"),
+                (String) props.get("spring.datasource.username"), (String) props.get("spring.datasource.password"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE employee (id BIGINT, emp_no VARCHAR(255), name VARCHAR(255))");
+        }
+        // shuffled emp_no; 24 first names x 20 last names and a number, e.g. "Joanna Robinson 5123"
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO employee "
+                + "SELECT g, 'E' || lpad(((g * 7919) % ?)::text, 8, '0'), "
+                + "(ARRAY['Anna','John','Maria','Peter','Joanna','Mark','Susan','David','Hannah','Paul','Laura',"
+                + "'James','Diana','Thomas','Emma','Daniel','Sophie','Michael','Olivia','Andrew','Grace','Simon',"
+                + "'Chloe','Brian'])[g % 24 + 1] || ' ' || "
+                + "(ARRAY['Smith','Johnson','Brown','Taylor','Anderson','Wilson','Moore','Jackson','Martin','Lee',"
+                + "'Thompson','White','Harris','Clark','Lewis','Robinson','Walker','Young','Allen','King'])"
+                + "[(g / 24) % 20 + 1] || ' ' || (g % 10000) "
+                + "FROM generate_series(0::bigint, ? - 1) g")) {
+            ps.setInt(1, employees);
+            ps.setInt(2, employees);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("ANALYZE employee");
+        }
+        connection.setAutoCommit(false);
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        jdbc.setFetchSize(1000);
+        index = EmployeeSearchIndex.load(jdbc);
+        connection.commit();
+        pattern = "%" + query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    @Benchmark
+    public int run() {
+        if ("index".equals(impl)) {
+            List<EmployeeMatch> matches = index.search(query, LIMIT);
+            return matches.size();
+        }
+        return jdbc.queryForList("SELECT id, emp_no, name FROM employee WHERE emp_no ILIKE ? OR name ILIKE ? LIMIT ?",
+                pattern, pattern, LIMIT).size();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import com.ops_candidate_evaluation.backend.importer.BenchDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * q1, q2 and q3 from the in-memory employee columns (impl=memory) against the
+ * fastest SQL version of each (q1 window, q2, q3 window), up to 1M employees.
+ * The rows go to a sink that only counts them, so this is the query without
+ * the JSON. The columns are built once in the setup, as after the first request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MemoryQueryBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int employees;
+
+    @Param({ "q1", "q2", "q3" })
+    public String query;
+
+    @Param({ "sql", "memory" })
+    public String impl;
+
+    private Connection connection;
+    private QueryService queries;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, Object> props = BenchDatabase.properties();
+        connection = DriverManager.getConnection((String) props.get("spring.datasource.url"),
+                (String) props.get("spring.datasource.username"), (String) props.get("spring.datasource.password"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE location (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE department (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE employee (id BIGINT, emp_no VARCHAR(255), name VARCHAR(255), "
+                    + "dept_code VARCHAR(255), location_id BIGINT, position VARCHAR(255), salary NUMERIC(38,2))");
+            st.execute("INSERT INTO location SELECT g, 'L' || g, 'Location ' || g FROM generate_series(1, 50) g");
+            st.execute("INSERT INTO department SELECT g, 'D' || g, 'Department ' || g FROM generate_series(1, 40) g");
+        }
+        // shuffled emp_no, 15 positions, salaries 1000.00 to 100999.50 in steps of 0.50
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO employee "
+                + "SELECT g, 'E' || lpad(((g * 7919) % ?)::text, 8, '0'), 'Employee ' || g, 'D' || (g % 40 + 1), "
+                + "(g / 40) % 50 + 1, 'Position ' || (g % 15), 1000 + ((g * 104729) % 200000) / 2.0 "
+                + "FROM generate_series(0::bigint, ? - 1) g")) {
+            ps.setInt(1, employees);
+            ps.setInt(2, employees);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE INDEX ON employee (dept_code, emp_no)");
+            // autovacuum never analyzes temporary tables
+            st.execute("ANALYZE location");
+            st.execute("ANALYZE department");
+            st.execute("ANALYZE employee");
+        }
+        SingleConnectionDataSource single = new SingleConnectionDataSource(connection, true);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(single);
+        queries = new QueryService(single, txManager, new EmployeeColumnStore(single, txManager, event -> { }, new ReadRouting()));
+        run();
+    }
+
+    @Benchmark
+    public long run() {
+        CountingSink sink = new CountingSink();
+        boolean memory = "memory".equals(impl);
+        switch (query) {
+            case "q1" -> queries.q1(memory ? "memory" : "window", sink);
+            case "q2" -> queries.q2(memory ? "memory" : "sql", sink);
+            default -> queries.q3(memory ? "memory" : "window", sink);
+        }
+        return sink.rows;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    private static final class CountingSink implements RowSink {
+
+        long rows;
+
+        @Override
+        public void columns(List<String> names) {
+        }
+
+        @Override
+        public void row(Object[] values) {
+            rows++;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import com.ops_candidate_evaluation.backend.importer.BenchDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * q3 live (self-joins, quadratic in the distinct salaries of a location and
+ * department) against q3 window (one sort), over the same number of employees
+ * with more and more distinct salaries per group, to find where the window
+ * version starts to win. The data is in temporary tables on one connection,
+ * which shadow the real tables for the queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class Q3ImplBenchmark {
+
+    // 4 locations x 5 departments
+    private static final int GROUPS = 20;
+
+    @Param({ "20000" })
+    public int employees;
+
+    // per (location, department); at most employees / GROUPS
+    @Param({ "1", "10", "30", "100", "300", "1000" })
+    public int distinctSalaries;
+
+    @Param({ "live", "window" })
+    public String impl;
+
+    private Connection connection;
+    private QueryService queries;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Map<String, Object> props = BenchDatabase.properties();
+        connection = DriverManager.getConnection((String) props.get("spring.datasource.url"),
+                (String) props.get("spring.datasource.username"), (String) props.get("spring.datasource.password"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE location (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE department (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE employee (id BIGINT, emp_no VARCHAR(255), name VARCHAR(255), "
+                    + "dept_code VARCHAR(255), location_id BIGINT, position VARCHAR(255), salary NUMERIC(38,2))");
+            st.execute("INSERT INTO location SELECT g, 'L' || g, 'Location ' || g FROM generate_series(1, 4) g");
+            st.execute("INSERT INTO department SELECT g, 'D' || g, 'Department ' || g FROM generate_series(1, 5) g");
+        }
+        // employee g is in group g % GROUPS; the groups cycle through their distinct salaries in turn
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO employee "
+                + "SELECT g, 'E' || g, 'Employee ' || g, 'D' || (g % 5 + 1), (g / 5) % 4 + 1, 'Staff', "
+                + "1000 + ((g / ?) % ?) * 10 FROM generate_series(0, ? - 1) g")) {
+            ps.setInt(1, GROUPS);
+            ps.setInt(2, distinctSalaries);
+            ps.setInt(3, employees);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            // autovacuum never analyzes temporary tables
+            st.execute("ANALYZE location");
+            st.execute("ANALYZE department");
+            st.execute("ANALYZE employee");
+        }
+        SingleConnectionDataSource single = new SingleConnectionDataSource(connection, true);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(single);
+        queries = new QueryService(single, txManager, new EmployeeColumnStore(single, txManager, event -> { }, new ReadRouting()));
+    }
+
+    @Benchmark
+    public long q3() {
+        CountingSink sink = new CountingSink();
+        queries.q3(impl, sink);
+        return sink.rows;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    private static final class CountingSink implements RowSink {
+
+        long rows;
+
+        @Override
+        public void columns(List<String> names) {
+        }
+
+        @Override
+        public void row(Object[] values) {
+            rows++;
+        }
+    }
+}
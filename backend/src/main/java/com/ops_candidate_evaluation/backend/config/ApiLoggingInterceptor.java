@@ -1,43 +1,61 @@
 package com.ops_candidate_evaluation.backend.config;
 
 import com.ops_candidate_evaluation.backend.model.ApiCallHistory;
-import com.ops_candidate_evaluation.backend.repository.ApiCallHistoryRepository;
+import com.ops_candidate_evaluation.backend.service.ApiCallAuditWriter;
+import com.ops_candidate_evaluation.backend.service.RequestMetrics;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.time.Instant;
-import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ApiLoggingInterceptor implements HandlerInterceptor {
 
-    private final ApiCallHistoryRepository repo;
+    // System.nanoTime() at the start of the request. A request attribute rather than a ThreadLocal: under virtual
+    // threads every request has a fresh thread, and an async request completes on another thread than it started on
+    private static final String START = ApiLoggingInterceptor.class.getName() + ".start";
 
-    public ApiLoggingInterceptor(ApiCallHistoryRepository repo) {
-        this.repo = repo;
+    private final ApiCallAuditWriter auditWriter;
+    private final RequestMetrics metrics;
+
+    public ApiLoggingInterceptor(ApiCallAuditWriter auditWriter, RequestMetrics metrics) {
+        this.auditWriter = auditWriter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // an async dispatch of the same request keeps the first start
+        if (request.getAttribute(START) == null)
+            request.setAttribute(START, System.nanoTime());
+        return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
             @Nullable Exception ex) {
+        Object start = request.getAttribute(START);
+        long elapsed = start instanceof Long nanos ? System.nanoTime() - nanos : 0;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // keyed by handler pattern; an unmatched request must not add a series per raw URI
+        String route = pattern != null ? pattern.toString() : "UNMATCHED";
+        metrics.record(route, request.getMethod(), response.getStatus(), elapsed);
+
         ApiCallHistory h = new ApiCallHistory();
         h.setTimestamp(Instant.now());
         h.setMethod(request.getMethod());
         h.setPath(request.getRequestURI());
+        h.setRoute(route);
         h.setStatus(response.getStatus());
         // user identification: check header or session, fallback null
         String user = request.getHeader("X-User-Id");
         h.setUserIdentifier(user);
 
-        // save async to avoid blocking response thread
-        CompletableFuture.runAsync(() -> {
-            try {
-                repo.save(h);
-            } catch (Exception ignore) {
-            }
-        });
+        // queued for the batching writer, the response thread never touches the database
+        auditWriter.record(h);
     }
 }
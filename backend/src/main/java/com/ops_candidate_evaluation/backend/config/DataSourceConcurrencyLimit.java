@@ -0,0 +1,48 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * With virtual threads every request gets its own thread, so nothing in
+ * front of the pool bounds how many wait for a connection. This wraps the
+ * Hikari pool in a {@link LimitedDataSource} with {@code app.db.max-concurrency}
+ * permits (0, the default, means the pool's maximum size) and Hikari's
+ * connection timeout.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DataSourceConcurrencyLimit implements BeanPostProcessor, Ordered {
+
+    // wraps the pool before ReadReplicaRouting wraps the result
+    static final int ORDER = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConcurrencyLimit.class);
+
+    private final int maxConcurrency;
+
+    public DataSourceConcurrencyLimit(Environment environment) {
+        this.maxConcurrency = environment.getProperty("app.db.max-concurrency", Integer.class, 0);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource hikari))
+            return bean;
+        int permits = maxConcurrency > 0 ? maxConcurrency : hikari.getMaximumPoolSize();
+        log.info("Virtual threads: at most {} concurrent connections from '{}'", permits, beanName);
+        return new LimitedDataSource(hikari, permits, hikari.getConnectionTimeout());
+    }
+}
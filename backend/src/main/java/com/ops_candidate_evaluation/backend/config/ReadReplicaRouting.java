@@ -0,0 +1,109 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * With {@code app.datasource.replicas} set (comma-separated JDBC URLs), puts
+ * the application's DataSource behind a {@link ReplicaRoutingDataSource}, so
+ * read-only transactions are served by the replicas. Each replica gets a
+ * Hikari pool with the primary's settings, credentials included, and its own
+ * URL; under virtual threads it is limited like the primary. Without
+ * replicas the DataSource is left alone.
+ */
+@Component
+public class ReadReplicaRouting implements BeanPostProcessor, Ordered, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRouting.class);
+    // a replica that does not answer should not hold up the request that fails over
+    private static final long CONNECTION_TIMEOUT_MS = 1000;
+
+    private final String[] urls;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private final boolean virtual;
+    private final int maxConcurrency;
+    // looked up when the DataSource is wrapped, so it is not created early along with this post-processor
+    private final ObjectProvider<ReadRouting> readRouting;
+    private DataSource primary;
+    private ReplicaRoutingDataSource routing;
+
+    public ReadReplicaRouting(Environment environment, ObjectProvider<ReadRouting> readRouting) {
+        this.urls = Arrays.stream(environment.getProperty("app.datasource.replicas", String[].class, new String[0]))
+                .map(String::trim).filter(url -> !url.isEmpty()).toArray(String[]::new);
+        this.maxLagMs = environment.getProperty("app.datasource.replica.max-lag-ms", Long.class, 5000L);
+        this.checkIntervalMs = environment.getProperty("app.datasource.replica.check-interval-ms", Long.class, 2000L);
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        this.maxConcurrency = environment.getProperty("app.db.max-concurrency", Integer.class, 0);
+        this.readRouting = readRouting;
+    }
+
+    // after DataSourceConcurrencyLimit, so the primary keeps its limit
+    @Override
+    public int getOrder() {
+        return DataSourceConcurrencyLimit.ORDER + 1;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (urls.length == 0 || !"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource))
+            return bean;
+        HikariDataSource template = hikari(dataSource);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = new HikariDataSource();
+            if (template != null)
+                template.copyStateTo(pool);
+            pool.setJdbcUrl(urls[i]);
+            pool.setPoolName(name);
+            pool.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+            // start even while a replica is down; the health check finds out
+            pool.setInitializationFailTimeout(-1);
+            int permits = maxConcurrency > 0 ? maxConcurrency : pool.getMaximumPoolSize();
+            replicas.put(name, virtual ? new LimitedDataSource(pool, permits, CONNECTION_TIMEOUT_MS) : pool);
+        }
+        primary = dataSource;
+        ReadRouting reads = readRouting.getObject();
+        routing = new ReplicaRoutingDataSource(dataSource, replicas, reads, maxLagMs, checkIntervalMs);
+        // a replica that passed its last check lags at most maxLagMs, and the next check is that far off
+        reads.setGuardMillis(maxLagMs + checkIntervalMs);
+        log.info("Read-only transactions go to {} replica(s), max lag {} ms: {}", urls.length, maxLagMs,
+                String.join(", ", urls));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // the proxy hides the pool's close() from the container, so the pools are closed here
+    @Override
+    public void destroy() throws Exception {
+        if (routing == null)
+            return;
+        routing.close();
+        HikariDataSource pool = hikari(primary);
+        if (pool != null)
+            pool.close();
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Where the current thread's reads go when read replicas are configured
+ * ({@link ReplicaRoutingDataSource}). Work in a read-only transaction goes to a
+ * replica unless the thread is pinned to the primary: for the rest of a
+ * request after a recent write by the same client ({@link ReplicaLagGuard}),
+ * or around work that must see the latest writes. Without replicas nothing
+ * here has an effect.
+ */
+@Component
+public class ReadRouting {
+
+    private final ThreadLocal<Boolean> primary = new ThreadLocal<>();
+
+    // how long after a write a replica may still lack it; 0 without replicas
+    private volatile long guardNanos;
+    // System.nanoTime() of the last write through the application, 0 before the first
+    private volatile long lastWrite;
+
+    /** Runs {@code work} with all its connections from the primary. */
+    public <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = primary.get();
+        primary.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null)
+                primary.remove();
+        }
+    }
+
+    /**
+     * Runs {@code work} on the primary if the application wrote anything within
+     * the lag window, otherwise where it would go anyway. For results that are
+     * kept and served as current (caches, in-memory copies), which must not
+     * come from a replica that has not caught up with the write that made them
+     * stale.
+     */
+    public <T> T afterWrites(Supplier<T> work) {
+        return recentWrite() ? onPrimary(work) : work.get();
+    }
+
+    boolean replicaAllowed() {
+        return primary.get() == null && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    boolean isEnabled() {
+        return guardNanos > 0;
+    }
+
+    long guardNanos() {
+        return guardNanos;
+    }
+
+    void setGuardMillis(long ms) {
+        guardNanos = ms * 1_000_000;
+    }
+
+    void pin() {
+        primary.set(Boolean.TRUE);
+    }
+
+    void unpin() {
+        primary.remove();
+    }
+
+    void wrote() {
+        long now = System.nanoTime();
+        lastWrite = now != 0 ? now : 1;
+    }
+
+    private boolean recentWrite() {
+        long last = lastWrite;
+        return guardNanos > 0 && last != 0 && System.nanoTime() - last < guardNanos;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import com.ops_candidate_evaluation.backend.service.DataChangeEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes with read replicas: a client that made a write request
+ * (anything but GET, HEAD and OPTIONS) reads from the primary for the lag
+ * window that follows, so it is not shown data from before its own write. A
+ * client is its {@code X-User-Id} header, as in the API call audit, or else
+ * its address. Also records every write through the application for
+ * {@link ReadRouting#afterWrites}. Does nothing without replicas.
+ */
+@Component
+public class ReplicaLagGuard implements HandlerInterceptor {
+
+    private static final Set<String> READS = Set.of("GET", "HEAD", "OPTIONS");
+    // above this many clients, the ones past their window are dropped
+    private static final int PRUNE_AT = 10_000;
+
+    // client -> System.nanoTime() of its last write
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+    private final ReadRouting routing;
+
+    public ReplicaLagGuard(ReadRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!routing.isEnabled())
+            return true;
+        Long wrote = lastWrite.get(client(request));
+        if (wrote != null && System.nanoTime() - wrote < routing.guardNanos())
+            routing.pin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (!routing.isEnabled())
+            return;
+        routing.unpin();
+        if (READS.contains(request.getMethod()) || response.getStatus() >= 400)
+            return;
+        long now = System.nanoTime();
+        lastWrite.put(client(request), now);
+        if (lastWrite.size() > PRUNE_AT)
+            lastWrite.values().removeIf(t -> now - t >= routing.guardNanos());
+    }
+
+    // the in-memory employee columns are not a table, and their rebuilds read, not write
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        if (!DataChangeEvent.EMPLOYEE_COLUMNS.equals(event.table()))
+            routing.wrote();
+    }
+
+    private static String client(HttpServletRequest request) {
+        String user = request.getHeader("X-User-Id");
+        return user != null ? "user:" + user : "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,215 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to the read replicas, round
+ * robin, and everything else to the primary (see {@link ReadRouting}). A
+ * background check asks every replica how far its replay is behind; one that
+ * cannot be reached or lags more than {@code maxLagMs} gets no reads until a
+ * later check finds it fine again. A replica whose connection fails between
+ * checks is taken out at once and the next one is tried, the primary last.
+ * <p>
+ * The routing happens when a connection is taken, so it sits behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager gets a connection before it has marked the
+ * transaction read-only, and the proxy takes the real one at the first
+ * statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+    // 0 when the replica has replayed all it received, or is not in recovery at all
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final ReadRouting routing;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryReads = new LongAdder();
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "replica-check");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadRouting routing,
+            long maxLagMs, long checkIntervalMs) {
+        this.primary = primary;
+        this.routing = routing;
+        this.maxLagMs = maxLagMs;
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        checker.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!routing.replicaAllowed())
+            return PRIMARY;
+        Replica replica = nextHealthy();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /** One entry per replica, in configuration order. */
+    public Stats stats() {
+        List<ReplicaStats> list = replicas.stream().map(r -> new ReplicaStats(r.name, r.healthy, r.lagMs,
+                r.checkedAt, r.error, r.reads.sum(), r.failures.sum())).toList();
+        return new Stats(primaryReads.sum(), maxLagMs, list);
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        for (Replica r : replicas)
+            if (r.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Closing replica {} failed: {}", r.name, ex.getMessage());
+                }
+            }
+    }
+
+    private Connection connect(Connect connect) throws SQLException {
+        Object key = determineCurrentLookupKey();
+        while (!PRIMARY.equals(key)) {
+            Replica replica = replica(key);
+            try {
+                Connection connection = connect.to(replica.dataSource);
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.failures.increment();
+                down(replica, ex.getMessage());
+                key = determineCurrentLookupKey();
+            }
+        }
+        // read-only work the primary took: pinned, or no replica was available
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            primaryReads.increment();
+        return connect.to(primary);
+    }
+
+    private Replica nextHealthy() {
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            if (r.healthy)
+                return r;
+        }
+        return null;
+    }
+
+    private Replica replica(Object key) {
+        for (Replica r : replicas)
+            if (r.name.equals(key))
+                return r;
+        throw new IllegalStateException("No replica " + key);
+    }
+
+    private void check() {
+        for (Replica r : replicas) {
+            try (Connection c = r.dataSource.getConnection(); Statement st = c.createStatement()) {
+                st.setQueryTimeout(5);
+                long lag;
+                try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                    rs.next();
+                    lag = rs.getLong(1);
+                }
+                r.lagMs = lag;
+                r.checkedAt = Instant.now();
+                if (lag > maxLagMs) {
+                    down(r, "replay lag " + lag + " ms (max " + maxLagMs + ")");
+                } else {
+                    if (!r.healthy)
+                        log.info("Replica {} takes reads, replay lag {} ms", r.name, lag);
+                    r.error = null;
+                    r.healthy = true;
+                }
+            } catch (SQLException | RuntimeException ex) {
+                r.checkedAt = Instant.now();
+                down(r, ex.getMessage());
+            }
+        }
+    }
+
+    private static void down(Replica r, String reason) {
+        if (r.healthy)
+            log.warn("Replica {} gets no reads: {}", r.name, reason);
+        r.healthy = false;
+        r.error = reason;
+    }
+
+    @FunctionalInterface
+    private interface Connect {
+        Connection to(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        final LongAdder reads = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        // no reads before the first check has found it working
+        volatile boolean healthy;
+        volatile Long lagMs;
+        volatile Instant checkedAt;
+        volatile String error;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public record ReplicaStats(String name, boolean healthy, Long lagMs, Instant checkedAt, String error,
+            long reads, long failures) {
+    }
+
+    public record Stats(long primaryReads, long maxLagMs, List<ReplicaStats> replicas) {
+    }
+}
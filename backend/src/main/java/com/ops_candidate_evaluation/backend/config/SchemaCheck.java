@@ -0,0 +1,65 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The schema belongs to the Flyway migrations in {@code db/migration}. Before
+ * Hibernate starts, this refuses any ddl-auto mode that lets Hibernate change
+ * the schema ({@code create} and {@code create-drop} drop the tables with
+ * their indexes, {@code update} adds columns behind the migrations' back), and
+ * checks that the indexes the report queries rely on exist.
+ */
+@Component
+public class SchemaCheck {
+
+    private static final Set<String> ALLOWED_DDL_AUTO = Set.of("", "none", "validate");
+    private static final List<String> REQUIRED_INDEXES = List.of(
+            "ix_employee_dept_emp_no",
+            "ix_employee_location_dept_salary",
+            "ix_employee_location_emp_no",
+            "ix_api_call_history_timestamp",
+            "ux_q3_salary_rank");
+
+    private final JdbcTemplate jdbc;
+    private final Environment environment;
+
+    // JdbcTemplate is only created once Flyway has migrated
+    public SchemaCheck(JdbcTemplate jdbc, Environment environment) {
+        this.jdbc = jdbc;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void check() {
+        for (String key : List.of("spring.jpa.hibernate.ddl-auto", "spring.jpa.properties.hibernate.hbm2ddl.auto")) {
+            String mode = environment.getProperty(key, "").trim().toLowerCase(Locale.ROOT);
+            if (!ALLOWED_DDL_AUTO.contains(mode))
+                throw new IllegalStateException(key + "=" + mode + " would let Hibernate change the schema "
+                        + "owned by the Flyway migrations (db/migration); use validate or none");
+        }
+        List<String> missing = new ArrayList<>(REQUIRED_INDEXES);
+        missing.removeAll(jdbc.queryForList("SELECT indexname::text FROM pg_indexes "
+                + "WHERE schemaname = current_schema()", String.class));
+        if (!missing.isEmpty())
+            throw new IllegalStateException("Indexes missing from the schema: " + missing
+                    + "; they are created by the migrations in db/migration, check flyway_schema_history");
+    }
+
+    // Hibernate must not touch the schema before the check has passed
+    @Component
+    static class EntityManagerFactoryDependsOnSchemaCheck extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnSchemaCheck() {
+            super(SchemaCheck.class);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Platform or virtual threads for the application's own background work
+ * (import pipeline, import jobs, API call audit writer), following
+ * {@code spring.threads.virtual.enabled} like Tomcat's request executor does.
+ */
+@Component
+public class ThreadMode {
+
+    private final boolean virtual;
+
+    public ThreadMode(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /** Threads named {@code prefix1}, {@code prefix2}, ...; platform threads are daemons, as virtual ones always are. */
+    public ThreadFactory factory(String prefix) {
+        return builder().name(prefix, 1).factory();
+    }
+
+    public Thread newThread(String name, Runnable task) {
+        return builder().name(name).unstarted(task);
+    }
+
+    private Thread.Builder builder() {
+        return virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+    }
+}
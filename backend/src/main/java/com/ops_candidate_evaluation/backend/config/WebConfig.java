@@ -8,16 +8,20 @@ import org.springframework.web.servlet.config.annotation.*;
 public class WebConfig implements WebMvcConfigurer {
 
     private final ApiLoggingInterceptor apiLoggingInterceptor;
+    private final ReplicaLagGuard replicaLagGuard;
 
     @Autowired
-    public WebConfig(ApiLoggingInterceptor apiLoggingInterceptor) {
+    public WebConfig(ApiLoggingInterceptor apiLoggingInterceptor, ReplicaLagGuard replicaLagGuard) {
         this.apiLoggingInterceptor = apiLoggingInterceptor;
+        this.replicaLagGuard = replicaLagGuard;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(apiLoggingInterceptor)
                 .addPathPatterns("/api/**");
+        registry.addInterceptor(replicaLagGuard)
+                .addPathPatterns("/api/**");
     }
 
     // Add CORS mapping for frontend dev server
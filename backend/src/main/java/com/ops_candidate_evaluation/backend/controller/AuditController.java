@@ -0,0 +1,72 @@
+package com.ops_candidate_evaluation.backend.controller;
+
+import com.ops_candidate_evaluation.backend.service.ApiCallAuditWriter;
+import com.ops_candidate_evaluation.backend.service.AuditService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+
+    private final AuditService auditService;
+    private final ApiCallAuditWriter auditWriter;
+
+    public AuditController(AuditService auditService, ApiCallAuditWriter auditWriter) {
+        this.auditService = auditService;
+        this.auditWriter = auditWriter;
+    }
+
+    // call counts from the per-minute rollup; from/to are ISO instants, default the last hour
+    @GetMapping
+    public ResponseEntity<?> rollup(@RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String bucket,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String route,
+            @RequestParam(required = false) Integer status) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        return respond(() -> auditService.rollup(start, end, bucket, method, route, status));
+    }
+
+    // raw api_call_history rows, newest first; only for narrow windows
+    @GetMapping("/calls")
+    public ResponseEntity<?> calls(@RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String route,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "100") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        return respond(() -> auditService.calls(start, end, method, route, status, limit));
+    }
+
+    // enqueued/written/dropped/failed counters of the api_call_history writer
+    @GetMapping("/writer")
+    public ApiCallAuditWriter.Stats writer() {
+        return auditWriter.stats();
+    }
+
+    private static ResponseEntity<?> respond(Supplier<?> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Invalid audit query",
+                    "message", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ops_candidate_evaluation.backend.controller;
+
+import com.ops_candidate_evaluation.backend.service.AggregateQueryService;
+import com.ops_candidate_evaluation.backend.service.QueryResultCache;
+import com.ops_candidate_evaluation.backend.service.ReferenceCache;
+import com.ops_candidate_evaluation.backend.service.ReferenceCaches;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final ReferenceCaches caches;
+    private final QueryResultCache queryCache;
+    private final AggregateQueryService aggregates;
+
+    public CacheController(ReferenceCaches caches, QueryResultCache queryCache, AggregateQueryService aggregates) {
+        this.caches = caches;
+        this.queryCache = queryCache;
+        this.aggregates = aggregates;
+    }
+
+    // hit/miss/eviction counters of the reference-data caches
+    @GetMapping
+    public List<ReferenceCache.Stats> stats() {
+        return caches.stats();
+    }
+
+    // hits, 304s, misses and hit ratio of the /api/query result cache
+    @GetMapping("/query")
+    public QueryResultCache.Stats queryStats() {
+        return queryCache.stats();
+    }
+
+    // generated statements per /api/query/aggregate shape, and how often a shape was seen again
+    @GetMapping("/aggregate")
+    public AggregateQueryService.Stats aggregateStats() {
+        return aggregates.stats();
+    }
+}
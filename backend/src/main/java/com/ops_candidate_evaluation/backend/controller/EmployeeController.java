@@ -1,6 +1,9 @@
 package com.ops_candidate_evaluation.backend.controller;
 
 import com.ops_candidate_evaluation.backend.model.Employee;
+import com.ops_candidate_evaluation.backend.model.EmployeeBatchResult;
+import com.ops_candidate_evaluation.backend.service.EmployeeBatchService;
+import com.ops_candidate_evaluation.backend.service.EmployeeSearchService;
 import com.ops_candidate_evaluation.backend.service.EmployeeService;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
@@ -8,20 +11,84 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/employee")
 public class EmployeeController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final EmployeeService service;
+    private final EmployeeBatchService batchService;
+    private final EmployeeSearchService searchService;
 
-    public EmployeeController(EmployeeService service) {
+    public EmployeeController(EmployeeService service, EmployeeBatchService batchService,
+            EmployeeSearchService searchService) {
         this.service = service;
+        this.batchService = batchService;
+        this.searchService = searchService;
     }
 
+    // without paging parameters the full list is returned as before; any of
+    // limit/cursor/deptCode/locationId switches to keyset pages in emp_no order
     @GetMapping
-    public List<Employee> list() {
-        return service.list();
+    public ResponseEntity<?> list(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String deptCode,
+            @RequestParam(required = false) Long locationId) {
+        if (limit == null && cursor == null && deptCode == null && locationId == null)
+            return ResponseEntity.ok(service.list());
+        try {
+            return ResponseEntity.ok(service.page(limit != null ? limit : DEFAULT_PAGE_SIZE, cursor, deptCode,
+                    locationId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Invalid page request",
+                    "message", ex.getMessage()));
+        }
+    }
+
+    // emp_no or name containing q, ignoring case, for a search box; one or two characters match word starts only
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "" + EmployeeSearchService.DEFAULT_LIMIT) int limit) {
+        try {
+            return ResponseEntity.ok(searchService.search(q, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Invalid search request",
+                    "message", ex.getMessage()));
+        }
+    }
+
+    // batch writes: one result per array item, in request order; a failed item does not affect the others
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@RequestBody List<Employee> items) {
+        return batch(() -> batchService.create(items));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateBatch(@RequestBody List<Employee> items) {
+        return batch(() -> batchService.update(items));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteBatch(@RequestBody List<Long> ids) {
+        return batch(() -> batchService.delete(ids));
+    }
+
+    private static ResponseEntity<?> batch(Supplier<List<EmployeeBatchResult>> write) {
+        try {
+            return ResponseEntity.ok(write.get());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Invalid batch request",
+                    "message", ex.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
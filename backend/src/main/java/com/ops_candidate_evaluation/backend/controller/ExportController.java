@@ -0,0 +1,112 @@
+package com.ops_candidate_evaluation.backend.controller;
+
+import com.ops_candidate_evaluation.backend.service.CsvRowSink;
+import com.ops_candidate_evaluation.backend.service.QueryService;
+import com.ops_candidate_evaluation.backend.service.RowSink;
+import com.ops_candidate_evaluation.backend.service.XlsxRowSink;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Downloads of the report queries and the employee table as CSV or XLSX.
+ * Rows go from the database cursor (or the in-memory columns, with
+ * {@code impl=memory}) straight into the file, one at a time, so an export
+ * of any size runs in the same heap. CSV bytes flow as the rows come; an
+ * XLSX file can only be written out once its last row is in.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final List<String> EXPORTS = List.of("q1", "q2", "q3", "employee");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "csv", "text/csv;charset=UTF-8",
+            "xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final QueryService queryService;
+
+    // rows an XLSX export keeps in memory; older ones are flushed to a temporary file
+    @Value("${app.export.xlsx-window:100}")
+    private int xlsxWindow;
+
+    public ExportController(QueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    // impl is passed on to q1/q2/q3 as on /api/query (default app.query.qN.impl)
+    @GetMapping("/{what}")
+    public ResponseEntity<?> export(@PathVariable String what,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String impl,
+            HttpServletResponse response) throws IOException {
+        if (!EXPORTS.contains(what))
+            return badRequest("Unknown export", what + " (expected one of " + EXPORTS + ")");
+        if (!CONTENT_TYPES.containsKey(format))
+            return badRequest("Unknown format", format + " (expected one of " + CONTENT_TYPES.keySet() + ")");
+        Consumer<RowSink> query;
+        try {
+            query = query(what, impl);
+        } catch (IllegalArgumentException ex) {
+            List<String> expected = switch (what) {
+                case "q1" -> QueryService.Q1_IMPLS;
+                case "q2" -> QueryService.Q2_IMPLS;
+                default -> QueryService.Q3_IMPLS;
+            };
+            return badRequest("Unknown implementation", impl + " (expected one of " + expected + ")");
+        }
+
+        response.setContentType(CONTENT_TYPES.get(format));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(what + "." + format).build().toString());
+        // the headers go out now, so the download starts before the first row has been read
+        response.flushBuffer();
+        if (format.equals("csv")) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+                    64 * 1024);
+            query.accept(new CsvRowSink(out));
+        } else {
+            try (XlsxRowSink sink = new XlsxRowSink(response.getOutputStream(), what, xlsxWindow)) {
+                query.accept(sink);
+            }
+        }
+        return null;
+    }
+
+    private Consumer<RowSink> query(String what, String impl) {
+        return switch (what) {
+            case "q1" -> {
+                String selected = queryService.q1Impl(impl);
+                yield sink -> queryService.q1(selected, sink);
+            }
+            case "q2" -> {
+                String selected = queryService.q2Impl(impl);
+                yield sink -> queryService.q2(selected, sink);
+            }
+            case "q3" -> {
+                String selected = queryService.q3Impl(impl);
+                yield sink -> queryService.q3(selected, sink);
+            }
+            default -> queryService::employees;
+        };
+    }
+
+    private static ResponseEntity<?> badRequest(String error, String message) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", 400,
+                "error", error,
+                "message", message));
+    }
+}
@@ -0,0 +1,69 @@
+package com.ops_candidate_evaluation.backend.controller;
+
+import com.ops_candidate_evaluation.backend.importer.ImportEntity;
+import com.ops_candidate_evaluation.backend.importer.ImportJob;
+import com.ops_candidate_evaluation.backend.importer.ImportJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private final ImportJobService service;
+
+    public ImportController(ImportJobService service) {
+        this.service = service;
+    }
+
+    // Upload an XLSX or CSV file for one table; the import runs as a background job. Multipart is
+    // resolved lazily, so the file part is only read once the job has a slot.
+    @PostMapping(value = "/{entity}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> upload(@PathVariable String entity, MultipartHttpServletRequest request)
+            throws IOException {
+        ImportEntity target;
+        try {
+            target = ImportEntity.parse(entity);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Unknown import entity",
+                    "message", entity + " (expected one of " + Arrays.toString(ImportEntity.values()) + ")"));
+        }
+        Optional<ImportJob> job;
+        try {
+            job = service.submit(target, () -> request.getFile("file"));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Missing file",
+                    "message", ex.getMessage()));
+        }
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                    "status", 429,
+                    "error", "Too many imports",
+                    "message", "All import job slots are busy, retry later"));
+        }
+        return ResponseEntity.accepted().body(job.get());
+    }
+
+    @GetMapping("/jobs")
+    public List<ImportJob> jobs() {
+        return service.list();
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJob> job(@PathVariable String id) {
+        return ResponseEntity.of(service.get(id));
+    }
+}
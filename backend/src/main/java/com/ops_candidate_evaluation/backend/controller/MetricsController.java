@@ -0,0 +1,51 @@
+package com.ops_candidate_evaluation.backend.controller;
+
+import com.ops_candidate_evaluation.backend.config.ReplicaRoutingDataSource;
+import com.ops_candidate_evaluation.backend.service.RequestMetrics;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final RequestMetrics metrics;
+    private final DataSource dataSource;
+
+    public MetricsController(RequestMetrics metrics, DataSource dataSource) {
+        this.metrics = metrics;
+        this.dataSource = dataSource;
+    }
+
+    // latency percentiles, throughput and error rates per route; format=prometheus for a scrape target
+    @GetMapping
+    public ResponseEntity<?> metrics(@RequestParam(defaultValue = "json") String format) {
+        return switch (format) {
+            case "json" -> ResponseEntity.ok(metrics.snapshot());
+            case "prometheus" -> ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metrics.prometheus());
+            default -> ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Unknown format",
+                    "message", format + " (expected json or prometheus)"));
+        };
+    }
+
+    // health, lag and reads per read replica, and the read-only work the primary took; empty without replicas
+    @GetMapping("/replicas")
+    public ReplicaRoutingDataSource.Stats replicas() throws SQLException {
+        if (!dataSource.isWrapperFor(ReplicaRoutingDataSource.class))
+            return new ReplicaRoutingDataSource.Stats(0, 0, List.of());
+        return dataSource.unwrap(ReplicaRoutingDataSource.class).stats();
+    }
+}
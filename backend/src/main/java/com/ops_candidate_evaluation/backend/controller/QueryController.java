@@ -1,102 +1,214 @@
 package com.ops_candidate_evaluation.backend.controller;
 
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import com.ops_candidate_evaluation.backend.service.AggregateQueryService;
+import com.ops_candidate_evaluation.backend.service.EmployeeColumnStore;
+import com.ops_candidate_evaluation.backend.service.JsonRowSink;
+import com.ops_candidate_evaluation.backend.service.QueryResultCache;
+import com.ops_candidate_evaluation.backend.service.QueryService;
+import com.ops_candidate_evaluation.backend.service.RowSink;
+import com.ops_candidate_evaluation.backend.service.SalaryRankSnapshot;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * Report queries. {@code ?stream=true} writes rows to the response as they
+ * come off the database cursor instead of building the whole list first;
+ * the JSON is the same either way. Results are served from
+ * {@link QueryResultCache} with an ETag; {@code If-None-Match} with the
+ * current one gets a 304. {@code impl=memory} answers all three from the
+ * in-memory employee columns; like {@code impl=snapshot} of q3 it reports how
+ * current its copy is in {@code X-Snapshot-*} headers.
+ */
 @RestController
 @RequestMapping("/api/query")
 public class QueryController {
 
-    private final JdbcTemplate jdbc;
+    private final QueryService queryService;
+    private final SalaryRankSnapshot snapshot;
+    private final EmployeeColumnStore memory;
+    private final ObjectMapper objectMapper;
+    private final QueryResultCache cache;
+    private final AggregateQueryService aggregates;
+    private final ReadRouting readRouting;
 
-    public QueryController(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
+    public QueryController(QueryService queryService, SalaryRankSnapshot snapshot, EmployeeColumnStore memory,
+            ObjectMapper objectMapper, QueryResultCache cache, AggregateQueryService aggregates,
+            ReadRouting readRouting) {
+        this.queryService = queryService;
+        this.snapshot = snapshot;
+        this.memory = memory;
+        this.objectMapper = objectMapper;
+        this.cache = cache;
+        this.aggregates = aggregates;
+        this.readRouting = readRouting;
     }
 
-    // Query 1 - cumulative salary (use LATERAL correlated subquery to leverage
-    // index)
+    // Query 1 - cumulative salary; impl=lateral|window|stream|memory (default app.query.q1.impl)
+    // so the implementations can be compared on the same data
     @GetMapping("/q1")
-    public List<Map<String, Object>> query1() {
-        String sql = ""
-                + "SELECT e.dept_code AS dept_code, e.emp_no AS emp_no, e.name AS emp_name, COALESCE(cum.cumulative_salary, 0) AS cumulative_salary "
-                + "FROM employee e "
-                + "LEFT JOIN LATERAL ( "
-                + "  SELECT SUM(b.salary) AS cumulative_salary "
-                + "  FROM employee b "
-                + "  WHERE (b.dept_code IS NOT DISTINCT FROM e.dept_code) "
-                + "    AND b.emp_no <= e.emp_no "
-                + ") cum ON true "
-                + "ORDER BY e.dept_code, e.emp_no";
-        return jdbc.queryForList(sql);
+    public ResponseEntity<?> query1(@RequestParam(required = false) String impl,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        String selected;
+        try {
+            selected = queryService.q1Impl(impl);
+        } catch (IllegalArgumentException ex) {
+            return unknownImpl(impl, QueryService.Q1_IMPLS);
+        }
+        if ("memory".equals(selected))
+            snapshotHeaders(response, memory.getRefreshedAt(), memory.getDirtySince());
+        return respond("q1:" + selected, () -> queryService.q1(selected), sink -> queryService.q1(selected, sink),
+                stream, ifNoneMatch, response);
     }
 
-    // Query 2 - department analysis by location (force UNASSIGNED fallback)
+    // Query 2 - department analysis by location (force UNASSIGNED fallback); impl=sql|memory
+    // (default app.query.q2.impl)
     @GetMapping("/q2")
-    public List<Map<String, Object>> query2() {
-        String sql = ""
-                + "WITH dept_stats AS ( "
-                + "  SELECT e.location_id, l.name AS location_name, d.code AS dept_code, "
-                + "         COALESCE(NULLIF(d.name, ''), 'UNASSIGNED') AS dept_name, "
-                + "         COUNT(*) AS emp_count, ROUND(AVG(e.salary)::numeric,2) AS avg_salary "
-                + "  FROM employee e "
-                + "  LEFT JOIN department d ON d.code::text = e.dept_code::text "
-                + "  LEFT JOIN location l ON l.id = e.location_id "
-                + "  GROUP BY e.location_id, l.name, d.code, d.name "
-                + "), "
-                + "most AS ( "
-                + "  SELECT DISTINCT ON (location_id) location_id, dept_name AS dept_with_most_employees, emp_count AS dept_employee_count "
-                + "  FROM dept_stats "
-                + "  ORDER BY location_id, emp_count DESC, dept_name "
-                + "), "
-                + "lowest AS ( "
-                + "  SELECT DISTINCT ON (location_id) location_id, avg_salary AS avg_salary_of_lowest_dept "
-                + "  FROM dept_stats "
-                + "  ORDER BY location_id, avg_salary ASC "
-                + ") "
-                + "SELECT COALESCE(l.name, 'UNASSIGNED') AS location_name, "
-                + "       COALESCE(m.dept_with_most_employees, 'UNASSIGNED') AS dept_with_most_employees, "
-                + "       m.dept_employee_count, lo.avg_salary_of_lowest_dept "
-                + "FROM location l "
-                + "LEFT JOIN most m ON m.location_id = l.id "
-                + "LEFT JOIN lowest lo ON lo.location_id = l.id "
-                + "ORDER BY location_name";
-        return jdbc.queryForList(sql);
+    public ResponseEntity<?> query2(@RequestParam(required = false) String impl,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        String selected;
+        try {
+            selected = queryService.q2Impl(impl);
+        } catch (IllegalArgumentException ex) {
+            return unknownImpl(impl, QueryService.Q2_IMPLS);
+        }
+        if ("memory".equals(selected))
+            snapshotHeaders(response, memory.getRefreshedAt(), memory.getDirtySince());
+        return respond("q2:" + selected, () -> queryService.q2(selected), sink -> queryService.q2(selected, sink),
+                stream, ifNoneMatch, response);
     }
 
-    // Query 3 - salary ranking + gap (department_name fallback to UNASSIGNED)
+    // Query 3 - salary ranking + gap; impl=snapshot (materialized view, default
+    // app.query.q3.impl), live (the original self-join query), window (DENSE_RANK/LAG) or memory
     @GetMapping("/q3")
-    public List<Map<String, Object>> query3() {
-        String sql = ""
-                + "WITH distinct_salaries AS ( "
-                + "  SELECT location_id, dept_code, salary FROM employee GROUP BY location_id, dept_code, salary "
-                + "), "
-                + "salary_rank AS ( "
-                + "  SELECT ds.location_id, ds.dept_code, ds.salary, 1 + COUNT(h.salary) AS salary_rank "
-                + "  FROM distinct_salaries ds "
-                + "  LEFT JOIN distinct_salaries h "
-                + "    ON h.location_id = ds.location_id AND h.dept_code = ds.dept_code AND h.salary > ds.salary "
-                + "  GROUP BY ds.location_id, ds.dept_code, ds.salary "
-                + "), "
-                + "next_salary AS ( "
-                + "  SELECT ds.location_id, ds.dept_code, ds.salary, MIN(h.salary) AS next_higher_salary "
-                + "  FROM distinct_salaries ds "
-                + "  LEFT JOIN distinct_salaries h "
-                + "    ON h.location_id = ds.location_id AND h.dept_code = ds.dept_code AND h.salary > ds.salary "
-                + "  GROUP BY ds.location_id, ds.dept_code, ds.salary "
-                + ") "
-                + "SELECT COALESCE(loc.name, 'UNASSIGNED') AS location_name, "
-                + "       COALESCE(NULLIF(dep.name, ''), 'UNASSIGNED') AS department_name, "
-                + "       e.name AS employee_name, e.position AS position_name, e.salary AS salary, "
-                + "       COALESCE(sr.salary_rank, 1) AS salary_rank, "
-                + "       COALESCE(ns.next_higher_salary - e.salary, 0) AS salary_gap "
-                + "FROM employee e "
-                + "LEFT JOIN department dep ON dep.code::text = e.dept_code::text "
-                + "LEFT JOIN location loc ON loc.id = e.location_id "
-                + "LEFT JOIN salary_rank sr ON (sr.location_id IS NOT DISTINCT FROM e.location_id) AND (sr.dept_code IS NOT DISTINCT FROM e.dept_code) AND sr.salary = e.salary "
-                + "LEFT JOIN next_salary ns ON (ns.location_id IS NOT DISTINCT FROM e.location_id) AND (ns.dept_code IS NOT DISTINCT FROM e.dept_code) AND ns.salary = e.salary "
-                + "ORDER BY location_name, department_name, e.salary DESC";
-        return jdbc.queryForList(sql);
+    public ResponseEntity<?> query3(@RequestParam(required = false) String impl,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        String selected;
+        try {
+            selected = queryService.q3Impl(impl);
+        } catch (IllegalArgumentException ex) {
+            return unknownImpl(impl, QueryService.Q3_IMPLS);
+        }
+        if ("snapshot".equals(selected))
+            snapshotHeaders(response, snapshot.getRefreshedAt(), snapshot.getDirtySince());
+        else if ("memory".equals(selected))
+            snapshotHeaders(response, memory.getRefreshedAt(), memory.getDirtySince());
+        return respond("q3:" + selected, () -> queryService.q3(selected), sink -> queryService.q3(selected, sink),
+                stream, ifNoneMatch, response);
+    }
+
+    // Ad-hoc aggregation, e.g. groupBy=location,department&metrics=count,avg(salary)
+    // &filter=department=Sales|Ops;salary>=50000&sort=-count&limit=20; X-Truncated tells whether rows were cut
+    @GetMapping("/aggregate")
+    public ResponseEntity<?> aggregate(@RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) String metrics,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) {
+        AggregateQueryService.Result result;
+        try {
+            result = aggregates.aggregate(groupBy, metrics, filter, sort, limit);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", 400,
+                    "error", "Invalid aggregate query",
+                    "message", ex.getMessage()));
+        } catch (DataAccessException ex) {
+            if (!AggregateQueryService.isTimeout(ex))
+                throw ex;
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "status", 503,
+                    "error", "Query timed out",
+                    "message", "Cancelled after " + aggregates.getTimeoutMs()
+                            + " ms (app.query.aggregate.timeout-ms); narrow it with filter or fewer dimensions"));
+        }
+        return ResponseEntity.ok()
+                .header("X-Truncated", String.valueOf(result.truncated()))
+                .body(result.rows());
+    }
+
+    // A hit sends the cached bytes: no SQL and no Jackson. A miss with stream=true streams as before and
+    // leaves the cache alone, since streaming is for results too big to hold.
+    private ResponseEntity<?> respond(String key, Supplier<List<Map<String, Object>>> list, Consumer<RowSink> query,
+            boolean stream, String ifNoneMatch, HttpServletResponse response) throws IOException {
+        if (!cache.isEnabled()) {
+            if (stream) {
+                stream(response, query);
+                return null;
+            }
+            return ResponseEntity.ok(list.get());
+        }
+        if (cache.notModified(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cache.currentEtag()).build();
+        QueryResultCache.Entry entry = cache.get(key);
+        if (entry == null && stream) {
+            // the version before the query: if the data changes meanwhile, the next request gets it in full
+            response.setHeader(HttpHeaders.ETAG, cache.currentEtag());
+            response.setHeader("X-Cache", "MISS");
+            // the ETag promises the writes before it, so not from a replica that may lack them
+            stream(response, sink -> readRouting.afterWrites(() -> {
+                query.accept(sink);
+                return null;
+            }));
+            return null;
+        }
+        String outcome = entry != null ? "HIT" : "MISS";
+        if (entry == null)
+            entry = cache.load(key, query);
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .header("X-Cache", outcome)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
+
+    // no refresh time yet before the first refresh (for impl=memory, before the first request)
+    private static void snapshotHeaders(HttpServletResponse response, Instant refreshedAt, Instant dirtySince) {
+        if (refreshedAt != null) {
+            response.setHeader("X-Snapshot-Refreshed-At", refreshedAt.toString());
+            response.setHeader("X-Snapshot-Age-Ms",
+                    String.valueOf(Duration.between(refreshedAt, Instant.now()).toMillis()));
+        }
+        // writes not yet in the snapshot, and since when
+        response.setHeader("X-Snapshot-Stale", String.valueOf(dirtySince != null));
+        if (dirtySince != null)
+            response.setHeader("X-Snapshot-Stale-Since", dirtySince.toString());
+    }
+
+    private static ResponseEntity<?> unknownImpl(String impl, List<String> expected) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", 400,
+                "error", "Unknown implementation",
+                "message", impl + " (expected one of " + expected + ")"));
+    }
+
+    // rows go out as the servlet buffer fills; once it has been flushed a failure can only cut the body short
+    private void stream(HttpServletResponse response, Consumer<RowSink> query) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            query.accept(new JsonRowSink(json));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes import rows straight over JDBC. IDENTITY ids disable Hibernate insert
+ * batching, so {@code saveAll} costs one round-trip per row; here a chunk is
+ * either one JDBC batch ({@code batch}) or one {@code COPY ... FROM STDIN}
+ * ({@code copy}).
+ */
+@Component
+public class BulkLoader {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+
+    // copy (PostgreSQL COPY protocol) or batch (JdbcTemplate.batchUpdate)
+    @Value("${app.import.writer:copy}")
+    private String mode;
+
+    public BulkLoader(DataSource dataSource, JdbcTemplate jdbc) {
+        this.dataSource = dataSource;
+        this.jdbc = jdbc;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public <T> int insert(BulkTable<T> table, List<T> rows) {
+        if (rows.isEmpty())
+            return 0;
+        if ("copy".equalsIgnoreCase(mode))
+            return copy(table, rows);
+        if ("batch".equalsIgnoreCase(mode))
+            return batch(table, rows);
+        throw new IllegalStateException("Unknown app.import.writer: " + mode);
+    }
+
+    /** Writer that upserts only new/changed rows of {@code table}; one instance per table per run. */
+    public <T> TableWriter<T> delta(BulkTable<T> table, boolean deleteMissing) {
+        return new DeltaWriter<>(jdbc, table, deleteMissing);
+    }
+
+    private <T> int batch(BulkTable<T> table, List<T> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(table.getColumns().size(), "?"));
+        String sql = "INSERT INTO " + table.getName() + " (" + table.columnList() + ") VALUES (" + placeholders + ")";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (T row : rows)
+            args.add(table.values(row));
+        jdbc.batchUpdate(sql, args, table.getSqlTypes());
+        return rows.size();
+    }
+
+    private <T> int copy(BulkTable<T> table, List<T> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 64);
+        for (T row : rows) {
+            Object[] values = table.values(row);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    csv.append(',');
+                appendCsv(csv, values[i]);
+            }
+            csv.append('\n');
+        }
+        String sql = "COPY " + table.getName() + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)";
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            long n = con.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+            return (int) n;
+        } catch (Exception ex) {
+            throw new IllegalStateException("COPY into " + table.getName() + " failed: " + ex.getMessage(), ex);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    // unquoted empty is NULL in CSV COPY; everything else is quoted
+    private static void appendCsv(StringBuilder out, Object v) {
+        if (v == null)
+            return;
+        String s = v instanceof BigDecimal b ? b.toPlainString() : v.toString();
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"')
+                out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
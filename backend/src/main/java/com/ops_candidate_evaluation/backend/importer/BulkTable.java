@@ -0,0 +1,70 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import com.ops_candidate_evaluation.backend.model.*;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Column layout used by {@link BulkLoader} to write entities without going
+ * through JPA. Ids are left to the table's identity/serial default; the first
+ * column is the natural key ({@code code} / {@code emp_no}) used by delta
+ * imports.
+ */
+public final class BulkTable<T> {
+
+    public static final BulkTable<Location> LOCATION = new BulkTable<>("location",
+            List.of("code", "name"), new int[] { Types.VARCHAR, Types.VARCHAR },
+            l -> new Object[] { l.getCode(), l.getName() });
+
+    public static final BulkTable<Department> DEPARTMENT = new BulkTable<>("department",
+            List.of("code", "name"), new int[] { Types.VARCHAR, Types.VARCHAR },
+            d -> new Object[] { d.getCode(), d.getName() });
+
+    public static final BulkTable<Tier> TIER = new BulkTable<>("tier",
+            List.of("code", "name"), new int[] { Types.VARCHAR, Types.VARCHAR },
+            t -> new Object[] { t.getCode(), t.getName() });
+
+    public static final BulkTable<Employee> EMPLOYEE = new BulkTable<>("employee",
+            List.of("emp_no", "name", "dept_code", "location_id", "position", "salary"),
+            new int[] { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.NUMERIC },
+            e -> new Object[] { e.getEmpNo(), e.getName(), e.getDeptCode(), e.getLocationId(), e.getPosition(),
+                    e.getSalary() });
+
+    private final String name;
+    private final List<String> columns;
+    private final int[] sqlTypes;
+    private final Function<T, Object[]> values;
+
+    private BulkTable(String name, List<String> columns, int[] sqlTypes, Function<T, Object[]> values) {
+        this.name = name;
+        this.columns = columns;
+        this.sqlTypes = sqlTypes;
+        this.values = values;
+    }
+
+    public String getKeyColumn() {
+        return columns.get(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public int[] getSqlTypes() {
+        return sqlTypes;
+    }
+
+    public Object[] values(T row) {
+        return values.apply(row);
+    }
+
+    String columnList() {
+        return String.join(", ", columns);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.math.BigDecimal;
+
+/** Cell conversion helpers shared by the import stages. */
+final class Cells {
+
+    private Cells() {
+    }
+
+    static String cellString(SheetRow r, int idx) {
+        Object v = r.get(idx);
+        if (v == null)
+            return null;
+        if (v instanceof String s)
+            return s.trim();
+        if (v instanceof Double d) {
+            if (Math.floor(d) == d)
+                return String.valueOf(d.longValue());
+            return BigDecimal.valueOf(d).toPlainString();
+        }
+        return v.toString().trim();
+    }
+
+    static BigDecimal cellNumeric(SheetRow r, int idx) {
+        try {
+            Object v = r.get(idx);
+            if (v == null)
+                return null;
+            if (v instanceof Double d)
+                return BigDecimal.valueOf(d);
+            String s = v.toString().trim();
+            if (s.isEmpty())
+                return null;
+            return new BigDecimal(s.replaceAll(",", ""));
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    static String nullable(String s) {
+        if (s == null)
+            return null;
+        s = s.trim();
+        return s.isEmpty() ? null : s;
+    }
+}
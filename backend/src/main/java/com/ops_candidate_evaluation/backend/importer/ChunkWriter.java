@@ -0,0 +1,72 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Buffers rows and commits them in fixed-size chunks, each in one transaction
+ * with the sheet checkpoint. A chunk the database refuses is retried row by
+ * row so only the offending rows end up in the reject table.
+ */
+final class ChunkWriter<T> {
+
+    private final TableWriter<T> writer;
+    private final int chunkSize;
+    private final ImportReport.Stage stage;
+    private final SheetCheckpoint checkpoint;
+    private final Function<T, String> raw;
+    private final List<T> chunk;
+    private final int[] rowNums;
+
+    ChunkWriter(TableWriter<T> writer, int chunkSize, ImportReport.Stage stage, SheetCheckpoint checkpoint,
+            Function<T, String> raw) {
+        this.writer = writer;
+        this.chunkSize = chunkSize;
+        this.stage = stage;
+        this.checkpoint = checkpoint;
+        this.raw = raw;
+        this.chunk = new ArrayList<>(chunkSize);
+        this.rowNums = new int[chunkSize];
+    }
+
+    void add(int rowNum, T row) {
+        rowNums[chunk.size()] = rowNum;
+        chunk.add(row);
+        if (chunk.size() >= chunkSize)
+            flush();
+    }
+
+    void flush() {
+        if (chunk.isEmpty())
+            return;
+        int n = chunk.size();
+        try {
+            checkpoint.commit(() -> writer.write(chunk), rowNums[n - 1], n);
+            stage.addWritten(n);
+        } catch (RuntimeException ex) {
+            writeRowByRow();
+        }
+        chunk.clear();
+    }
+
+    private void writeRowByRow() {
+        for (int i = 0; i < chunk.size(); i++) {
+            List<T> one = List.of(chunk.get(i));
+            try {
+                checkpoint.commit(() -> writer.write(one), rowNums[i], 1);
+                stage.addWritten(1);
+            } catch (RuntimeException ex) {
+                checkpoint.reject(rowNums[i], rootMessage(ex), raw.apply(one.get(0)));
+                stage.addRejected(1);
+            }
+        }
+    }
+
+    static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root)
+            root = root.getCause();
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * RFC 4180 CSV reader producing the same {@link SheetRow}s as the XLSX
+ * readers. Every value is text; an empty unquoted field is a blank cell.
+ * Reads character by character, so memory is bounded by the widest record.
+ */
+public class CsvSheetReader implements SheetReader {
+
+    @Override
+    public void read(Path file, Consumer<SheetRow> sink) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            read(in, sink);
+        }
+    }
+
+    void read(Reader in, Consumer<SheetRow> sink) throws IOException {
+        List<Object> cells = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        boolean pending = false;
+        int rowNum = 0;
+        int c = in.read();
+        if (c == '\uFEFF')
+            c = in.read();
+        while (c != -1) {
+            int next = in.read();
+            if (quoted) {
+                if (c == '"') {
+                    if (next == '"') {
+                        field.append('"');
+                        next = in.read();
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+                pending = true;
+            } else if (c == ',') {
+                cells.add(value(field, wasQuoted));
+                wasQuoted = false;
+                pending = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && next == '\n')
+                    next = in.read();
+                if (pending || field.length() > 0) {
+                    cells.add(value(field, wasQuoted));
+                    sink.accept(new SheetRow(rowNum, cells.toArray()));
+                    cells.clear();
+                }
+                rowNum++;
+                wasQuoted = false;
+                pending = false;
+            } else {
+                field.append((char) c);
+                pending = true;
+            }
+            c = next;
+        }
+        if (quoted)
+            throw new IOException("Unterminated quoted field in row " + (rowNum + 1));
+        if (pending || field.length() > 0) {
+            cells.add(value(field, wasQuoted));
+            sink.accept(new SheetRow(rowNum, cells.toArray()));
+        }
+    }
+
+    private static Object value(StringBuilder field, boolean quoted) {
+        String s = field.toString();
+        field.setLength(0);
+        return s.isEmpty() && !quoted ? null : s;
+    }
+}
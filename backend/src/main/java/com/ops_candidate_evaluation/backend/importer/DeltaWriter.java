@@ -0,0 +1,161 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a sheet as a delta against the rows already stored under the same
+ * natural key. Each chunk costs one keyed lookup; only new or changed rows
+ * are upserted ({@code ON CONFLICT ... DO UPDATE}) and, when the sheet has
+ * been read completely, keys no longer present in it are deleted.
+ */
+class DeltaWriter<T> implements TableWriter<T> {
+
+    private static final int DELETE_SCAN_SIZE = 10000;
+
+    private final JdbcTemplate jdbc;
+    private final BulkTable<T> table;
+    private final boolean deleteMissing;
+    private final String selectSql;
+    private final String upsertSql;
+    private final Set<String> seenKeys = new HashSet<>();
+
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long deleted;
+    private long skipped;
+
+    DeltaWriter(JdbcTemplate jdbc, BulkTable<T> table, boolean deleteMissing) {
+        this.jdbc = jdbc;
+        this.table = table;
+        this.deleteMissing = deleteMissing;
+        String key = table.getKeyColumn();
+        List<String> rest = table.getColumns().subList(1, table.getColumns().size());
+        this.selectSql = "SELECT " + table.columnList() + " FROM " + table.getName() + " WHERE " + key
+                + " = ANY(?)";
+        this.upsertSql = "INSERT INTO " + table.getName() + " (" + table.columnList() + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.getColumns().size(), "?")) + ") ON CONFLICT (" + key
+                + ") DO UPDATE SET "
+                + rest.stream().map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public void write(List<T> rows) {
+        // last occurrence of a key within the chunk wins, as it would across chunks
+        // counters only move once the chunk went through, a failed one is retried row by row
+        Map<String, Object[]> byKey = new LinkedHashMap<>();
+        long nullKeys = 0;
+        for (T row : rows) {
+            Object[] values = table.values(row);
+            if (values[0] == null) {
+                nullKeys++;
+                continue;
+            }
+            byKey.put(values[0].toString(), values);
+        }
+        seenKeys.addAll(byKey.keySet());
+        if (byKey.isEmpty()) {
+            skipped += nullKeys;
+            return;
+        }
+
+        Map<String, Long> stored = new HashMap<>();
+        jdbc.query(selectSql, ps -> ps.setArray(1, varcharArray(ps.getConnection(), byKey.keySet())),
+                (ResultSet rs) -> {
+                    int n = table.getColumns().size();
+                    Object[] values = new Object[n];
+                    for (int i = 0; i < n; i++)
+                        values[i] = rs.getObject(i + 1);
+                    stored.put(rs.getString(1), contentHash(values));
+                });
+
+        List<Object[]> changed = new ArrayList<>();
+        long added = 0;
+        long modified = 0;
+        for (Map.Entry<String, Object[]> e : byKey.entrySet()) {
+            Long hash = stored.get(e.getKey());
+            if (hash == null) {
+                added++;
+                changed.add(e.getValue());
+            } else if (hash != contentHash(e.getValue())) {
+                modified++;
+                changed.add(e.getValue());
+            }
+        }
+        if (!changed.isEmpty())
+            jdbc.batchUpdate(upsertSql, changed, table.getSqlTypes());
+        inserted += added;
+        updated += modified;
+        unchanged += byKey.size() - added - modified;
+        skipped += nullKeys;
+    }
+
+    @Override
+    public void resumedPast(T row) {
+        // still part of the sheet, so it must not be deleted as missing
+        Object key = table.values(row)[0];
+        if (key != null)
+            seenKeys.add(key.toString());
+    }
+
+    @Override
+    public void finish() {
+        if (!deleteMissing)
+            return;
+        // keyset scan over the stored keys so neither side is loaded at once
+        String key = table.getKeyColumn();
+        String scanSql = "SELECT " + key + " FROM " + table.getName() + " WHERE " + key + " > ? ORDER BY " + key
+                + " LIMIT " + DELETE_SCAN_SIZE;
+        String deleteSql = "DELETE FROM " + table.getName() + " WHERE " + key + " = ANY(?)";
+        String after = "";
+        while (true) {
+            List<String> keys = jdbc.queryForList(scanSql, String.class, after);
+            if (keys.isEmpty())
+                break;
+            List<String> missing = keys.stream().filter(k -> !seenKeys.contains(k)).toList();
+            if (!missing.isEmpty())
+                deleted += jdbc.update(deleteSql, ps -> ps.setArray(1, varcharArray(ps.getConnection(), missing)));
+            after = keys.get(keys.size() - 1);
+        }
+    }
+
+    @Override
+    public String summary() {
+        return String.format("inserted=%d updated=%d unchanged=%d deleted=%d skipped=%d",
+                inserted, updated, unchanged, deleted, skipped);
+    }
+
+    private static Array varcharArray(java.sql.Connection con, Collection<String> keys) throws java.sql.SQLException {
+        return con.createArrayOf("varchar", keys.toArray());
+    }
+
+    /** FNV-1a over the canonical text of every column, key included. */
+    static long contentHash(Object[] values) {
+        long h = 0xcbf29ce484222325L;
+        for (Object v : values) {
+            String s = canonical(v);
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= 0x1f; // field separator
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // numeric(…,2) comes back as 100.00 while the sheet yields 100, so compare by value
+    private static String canonical(Object v) {
+        if (v == null)
+            return "\u0000";
+        if (v instanceof BigDecimal b)
+            return b.signum() == 0 ? "0" : b.stripTrailingZeros().toPlainString();
+        return v.toString();
+    }
+}
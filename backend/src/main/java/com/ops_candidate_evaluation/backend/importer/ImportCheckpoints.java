@@ -0,0 +1,101 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Control tables of the importer. {@code import_checkpoint} holds the last
+ * committed sheet row per (table, file content); {@code import_reject} holds
+ * rows that could not be imported, with the reason. Both are created by
+ * the migrations in {@code db/migration}.
+ */
+@Component
+public class ImportCheckpoints {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETE = "COMPLETE";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public ImportCheckpoints(JdbcTemplate jdbc, TransactionTemplate tx) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+    }
+
+    /**
+     * Starts (or, with {@code resume}, continues) the import of {@code file}
+     * into {@code entity}. An unfinished earlier import resumes after its last
+     * committed row. A file imported completely before is skipped unless
+     * {@code repeatComplete} is set (delta imports reconcile it again).
+     */
+    SheetCheckpoint open(ImportEntity entity, Path file, boolean resume, boolean repeatComplete) {
+        String name = entity.name().toLowerCase(Locale.ROOT);
+        String fingerprint = fingerprint(file);
+        List<Map<String, Object>> found = jdbc.queryForList(
+                "SELECT last_row, status FROM import_checkpoint WHERE entity = ? AND file_fingerprint = ?",
+                name, fingerprint);
+        if (resume && !found.isEmpty()) {
+            int lastRow = ((Number) found.get(0).get("last_row")).intValue();
+            boolean complete = COMPLETE.equals(found.get(0).get("status"));
+            if (complete && !repeatComplete)
+                return new SheetCheckpoint(this, name, fingerprint, lastRow, true);
+            if (!complete && lastRow > 0)
+                return new SheetCheckpoint(this, name, fingerprint, lastRow, false);
+        }
+        jdbc.update("INSERT INTO import_checkpoint (entity, file_fingerprint, file_name, last_row, rows_written, "
+                + "status, updated_at) VALUES (?, ?, ?, 0, 0, ?, now()) ON CONFLICT (entity, file_fingerprint) "
+                + "DO UPDATE SET file_name = EXCLUDED.file_name, last_row = 0, rows_written = 0, "
+                + "status = EXCLUDED.status, updated_at = now()",
+                name, fingerprint, file.getFileName().toString(), RUNNING);
+        jdbc.update("DELETE FROM import_reject WHERE entity = ? AND file_fingerprint = ?", name, fingerprint);
+        return new SheetCheckpoint(this, name, fingerprint, 0, false);
+    }
+
+    /** Runs {@code write} and moves the checkpoint to {@code lastRow} in one transaction. */
+    void commit(SheetCheckpoint cp, Runnable write, int lastRow, long rows) {
+        tx.executeWithoutResult(status -> {
+            write.run();
+            jdbc.update("UPDATE import_checkpoint SET last_row = ?, rows_written = rows_written + ?, updated_at = now() "
+                    + "WHERE entity = ? AND file_fingerprint = ?", lastRow, rows, cp.getEntity(), cp.getFingerprint());
+        });
+    }
+
+    void reject(SheetCheckpoint cp, int rowNum, String reason, String raw) {
+        // a resumed run may meet the same bad row again
+        jdbc.update("INSERT INTO import_reject (entity, file_fingerprint, row_num, reason, raw, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, now()) ON CONFLICT (entity, file_fingerprint, row_num) DO NOTHING",
+                cp.getEntity(), cp.getFingerprint(), rowNum, reason, raw);
+    }
+
+    void complete(SheetCheckpoint cp) {
+        jdbc.update("UPDATE import_checkpoint SET status = ?, updated_at = now() "
+                + "WHERE entity = ? AND file_fingerprint = ?", COMPLETE, cp.getEntity(), cp.getFingerprint());
+    }
+
+    /** SHA-256 of the file content, so a renamed copy still resumes and an edited file does not. */
+    static String fingerprint(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) > 0)
+                sha.update(buf, 0, n);
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(file.getFileName() + ": " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.util.Locale;
+
+/** Importable tables and the workbook each one is read from at boot. */
+public enum ImportEntity {
+    LOCATION, DEPARTMENT, TIER, EMPLOYEE;
+
+    public String fileName() {
+        return name().toLowerCase(Locale.ROOT) + ".xlsx";
+    }
+
+    public static ImportEntity parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.time.Instant;
+
+/** One upload import tracked by {@link ImportJobService}. */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final ImportEntity entity;
+    private final String fileName;
+    private final Instant submittedAt = Instant.now();
+    private final ImportReport report = new ImportReport();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ImportJob(String id, ImportEntity entity, String fileName) {
+        this.id = id;
+        this.entity = entity;
+        this.fileName = fileName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImportEntity getEntity() {
+        return entity;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getRowsParsed() {
+        return report.getRowsParsed();
+    }
+
+    public long getRowsWritten() {
+        return report.getRowsWritten();
+    }
+
+    public long getRowsRejected() {
+        return report.getRowsRejected();
+    }
+
+    /** Rows written per second since the job started running. */
+    public double getThroughput() {
+        return status == Status.QUEUED ? 0 : report.getThroughput();
+    }
+
+    public ImportReport getReport() {
+        return report;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void finished(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = error == null ? Status.SUCCEEDED : Status.FAILED;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import com.ops_candidate_evaluation.backend.config.ThreadMode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs upload imports as background jobs. At most
+ * {@code app.import.max-concurrent-jobs} run at once, on their own threads,
+ * so uploads never hold request threads; further uploads are refused rather
+ * than queued.
+ */
+@Service
+public class ImportJobService {
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    // finished jobs kept for GET /api/import/jobs/{id}
+    private static final int MAX_TRACKED_JOBS = 100;
+
+    private final ImportPipeline pipeline;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    });
+
+    public ImportJobService(ImportPipeline pipeline, ThreadMode threads,
+            @Value("${app.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.pipeline = pipeline;
+        this.slots = new Semaphore(maxConcurrentJobs);
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, threads.factory("import-job-"));
+    }
+
+    /**
+     * Starts an import of {@code upload} into {@code entity}. Returns empty when
+     * all job slots are busy, without reading the upload: an upload over the
+     * cap is refused before its body is transferred. Once a slot is taken the
+     * servlet container spools the multipart to disk; it is moved to a private
+     * temp file and read from there as a stream, never loaded whole.
+     */
+    public Optional<ImportJob> submit(ImportEntity entity, Upload upload) throws IOException {
+        if (!slots.tryAcquire())
+            return Optional.empty();
+        Path tmp = null;
+        try {
+            MultipartFile file = upload.read();
+            if (file == null)
+                throw new IllegalArgumentException("The upload has no multipart field \"file\"");
+            String name = file.getOriginalFilename();
+            boolean csv = name != null && name.toLowerCase(Locale.ROOT).endsWith(".csv");
+            tmp = Files.createTempFile("import-", csv ? ".csv" : ".xlsx");
+            file.transferTo(tmp);
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), entity, name);
+            jobs.put(job.getId(), job);
+            Path spooled = tmp;
+            executor.execute(() -> run(job, spooled));
+            return Optional.of(job);
+        } catch (IOException | RuntimeException ex) {
+            slots.release();
+            if (tmp != null)
+                Files.deleteIfExists(tmp);
+            throw ex;
+        }
+    }
+
+    public Optional<ImportJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ImportJob> list() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.running();
+        String error = null;
+        try {
+            ImportReport report = pipeline.run(job.getEntity(), file, pipeline.readerFor(job.getFileName()),
+                    job.getReport());
+            error = report.getStages().stream().filter(s -> s.getError() != null)
+                    .map(s -> s.getName() + ": " + s.getError())
+                    .reduce((a, b) -> a + "; " + b).orElse(null);
+            log.info("Import job {} ({} from {}): {}", job.getId(), job.getEntity(), job.getFileName(), report);
+        } catch (RuntimeException ex) {
+            error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            log.error("Import job {} failed", job.getId(), ex);
+        } finally {
+            job.finished(error);
+            slots.release();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                log.warn("Could not delete {}", file, ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Reads the uploaded file; called only after a job slot is taken. */
+    @FunctionalInterface
+    public interface Upload {
+        MultipartFile read() throws IOException;
+    }
+}
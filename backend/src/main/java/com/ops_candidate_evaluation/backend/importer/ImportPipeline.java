@@ -0,0 +1,473 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import com.ops_candidate_evaluation.backend.config.ThreadMode;
+import com.ops_candidate_evaluation.backend.model.*;
+import com.ops_candidate_evaluation.backend.repository.*;
+import com.ops_candidate_evaluation.backend.service.DataChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+import static com.ops_candidate_evaluation.backend.importer.Cells.*;
+
+/**
+ * Loads the four import workbooks concurrently. Location, department and tier
+ * are parsed and written in parallel; employee parsing starts at the same
+ * time and feeds a bounded queue that the employee writer drains once the
+ * reference tables are in place (employee rows resolve location codes).
+ * With {@code app.import.mode=delta} every table is reconciled by natural key
+ * instead of appended to.
+ * <p>
+ * Every chunk commits together with a checkpoint of the file, so a run that
+ * dies part-way resumes after the last committed row of the same file
+ * (see {@link ImportCheckpoints}).
+ */
+@Component
+public class ImportPipeline {
+
+    // queue sentinels: sheet fully read / parsing stopped early or file absent
+    private static final EmployeeRow END = new EmployeeRow(null, null, 0, false);
+    private static final EmployeeRow ABORTED = new EmployeeRow(null, null, 0, false);
+
+    private final LocationRepository locationRepo;
+    private final DepartmentRepository departmentRepo;
+    private final TierRepository tierRepo;
+    private final EmployeeRepository employeeRepo;
+    private final BulkLoader bulkLoader;
+    private final ImportCheckpoints checkpoints;
+    private final ApplicationEventPublisher events;
+    private final ThreadMode threads;
+
+    // streaming (SAX, constant memory) or workbook (whole DOM in memory)
+    @Value("${app.import.reader:streaming}")
+    private String readerMode;
+
+    // rows are written per chunk so memory does not grow with the sheet
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    // full (append every row) or delta (upsert changed rows, delete missing keys)
+    @Value("${app.import.mode:full}")
+    private String importMode;
+
+    // delta mode only: delete stored rows whose key is absent from the sheet; off unless asked for,
+    // since a truncated or wrong file would otherwise wipe the table
+    @Value("${app.import.delete-missing:false}")
+    private boolean deleteMissing;
+
+    // employee rows buffered between the parser and the writer
+    @Value("${app.import.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // continue an unfinished import of the same file after its last committed row
+    @Value("${app.import.resume:true}")
+    private boolean resume;
+
+    public ImportPipeline(LocationRepository locationRepo,
+            DepartmentRepository departmentRepo,
+            TierRepository tierRepo,
+            EmployeeRepository employeeRepo,
+            BulkLoader bulkLoader,
+            ImportCheckpoints checkpoints,
+            ApplicationEventPublisher events,
+            ThreadMode threads) {
+        this.locationRepo = locationRepo;
+        this.departmentRepo = departmentRepo;
+        this.tierRepo = tierRepo;
+        this.employeeRepo = employeeRepo;
+        this.bulkLoader = bulkLoader;
+        this.checkpoints = checkpoints;
+        this.events = events;
+        this.threads = threads;
+    }
+
+    public ImportReport run(Path base) {
+        SheetReader reader = SheetReader.forMode(readerMode);
+        ImportReport report = new ImportReport();
+        ExecutorService pool = Executors.newFixedThreadPool(5, threads.factory("import-"));
+        try {
+            CompletableFuture<Void> locations = referenceStage(pool, report, ImportEntity.LOCATION, reader,
+                    base.resolve(ImportEntity.LOCATION.fileName()));
+            CompletableFuture<Void> departments = referenceStage(pool, report, ImportEntity.DEPARTMENT, reader,
+                    base.resolve(ImportEntity.DEPARTMENT.fileName()));
+            CompletableFuture<Void> tiers = referenceStage(pool, report, ImportEntity.TIER, reader,
+                    base.resolve(ImportEntity.TIER.fileName()));
+
+            // employee rows wait for the reference loads, failed or not, like the old sequential run
+            CompletableFuture<Void> references = CompletableFuture.allOf(locations, departments, tiers)
+                    .handle((v, ex) -> null);
+            employeeStages(pool, report, reader, base.resolve(ImportEntity.EMPLOYEE.fileName()), references)
+                    .handle((v, ex) -> null).join();
+        } finally {
+            pool.shutdownNow();
+        }
+        report.finish();
+        for (ImportEntity entity : ImportEntity.values())
+            publishChange(entity);
+        return report;
+    }
+
+    /**
+     * Imports a single table from one file (e.g. an upload). Reference tables
+     * are taken as already loaded. Progress is visible through {@code report}
+     * while this runs.
+     */
+    public ImportReport run(ImportEntity entity, Path file, SheetReader reader, ImportReport report) {
+        ExecutorService pool = Executors.newFixedThreadPool(2, threads.factory("import-"));
+        try {
+            CompletableFuture<Void> done = entity == ImportEntity.EMPLOYEE
+                    ? employeeStages(pool, report, reader, file, CompletableFuture.completedFuture(null))
+                    : referenceStage(pool, report, entity, reader, file);
+            done.handle((v, ex) -> null).join();
+        } finally {
+            pool.shutdownNow();
+        }
+        report.finish();
+        publishChange(entity);
+        return report;
+    }
+
+    // also after partial or failed runs: whatever was committed is visible now
+    private void publishChange(ImportEntity entity) {
+        events.publishEvent(new DataChangeEvent(entity.name().toLowerCase(Locale.ROOT)));
+    }
+
+    /** Reader for an uploaded file: CSV by extension, otherwise XLSX per {@code app.import.reader}. */
+    public SheetReader readerFor(String fileName) {
+        return SheetReader.forFile(fileName, readerMode);
+    }
+
+    private CompletableFuture<Void> referenceStage(ExecutorService pool, ImportReport report, ImportEntity entity,
+            SheetReader reader, Path file) {
+        ImportReport.Stage stage = report.stage(entity.name().toLowerCase(Locale.ROOT));
+        return stage(pool, stage, () -> {
+            switch (entity) {
+                case LOCATION:
+                    importSheet(entity, stage, reader, file, this::toLocation, BulkTable.LOCATION, locationRepo);
+                    break;
+                case DEPARTMENT:
+                    importSheet(entity, stage, reader, file, this::toDepartment, BulkTable.DEPARTMENT,
+                            departmentRepo);
+                    break;
+                case TIER:
+                    importSheet(entity, stage, reader, file, this::toTier, BulkTable.TIER, tierRepo);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a reference table: " + entity);
+            }
+        });
+    }
+
+    /** Employee parser and writer joined by a bounded queue; the writer starts once {@code after} completes. */
+    private CompletableFuture<Void> employeeStages(ExecutorService pool, ImportReport report, SheetReader reader,
+            Path file, CompletableFuture<Void> after) {
+        BlockingQueue<EmployeeRow> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicBoolean writerFailed = new AtomicBoolean();
+        ImportReport.Stage parseStage = report.stage("employee.parse");
+        ImportReport.Stage writeStage = report.stage("employee.write");
+        // opened by the parser, always completed (null without a file) before its first put
+        CompletableFuture<SheetCheckpoint> checkpoint = new CompletableFuture<>();
+        CompletableFuture<Void> parse = stage(pool, parseStage,
+                () -> parseEmployees(parseStage, reader, file, checkpoint, queue, writerFailed));
+        CompletableFuture<Void> write = after.thenComposeAsync(v -> stage(pool, writeStage, () -> {
+            try {
+                writeEmployees(writeStage, checkpoint.join(), queue);
+            } catch (RuntimeException ex) {
+                writerFailed.set(true);
+                throw ex;
+            }
+        }), pool);
+        return CompletableFuture.allOf(parse, write);
+    }
+
+    private CompletableFuture<Void> stage(ExecutorService pool, ImportReport.Stage stage, Runnable body) {
+        return CompletableFuture.runAsync(() -> {
+            stage.start();
+            try {
+                body.run();
+                stage.end();
+            } catch (RuntimeException ex) {
+                stage.fail(ex);
+                throw ex;
+            }
+        }, pool);
+    }
+
+    // app.import.writer=jpa keeps the old saveAll path, anything else goes to BulkLoader
+    private <T> TableWriter<T> writer(BulkTable<T> table, JpaRepository<T, Long> repo) {
+        if (isDelta())
+            return bulkLoader.delta(table, deleteMissing);
+        if ("jpa".equalsIgnoreCase(bulkLoader.getMode()))
+            return rows -> {
+                try {
+                    repo.saveAll(rows);
+                } catch (RuntimeException ex) {
+                    // the chunk rolls back, but IDENTITY ids stay on the entities and would make a retry a merge
+                    rows.forEach(ImportPipeline::clearId);
+                    throw ex;
+                }
+            };
+        return rows -> bulkLoader.insert(table, rows);
+    }
+
+    private static void clearId(Object row) {
+        switch (row) {
+            case Location l -> l.setId(null);
+            case Department d -> d.setId(null);
+            case Tier t -> t.setId(null);
+            case Employee e -> e.setId(null);
+            default -> {
+            }
+        }
+    }
+
+    private boolean isDelta() {
+        return "delta".equalsIgnoreCase(importMode);
+    }
+
+    /** Parses and writes one reference sheet. */
+    private <T> void importSheet(ImportEntity entity, ImportReport.Stage stage, SheetReader reader, Path file,
+            Function<SheetRow, T> mapper, BulkTable<T> table, JpaRepository<T, Long> repo) {
+        if (!Files.exists(file))
+            return;
+        SheetCheckpoint cp = checkpoints.open(entity, file, resume, isDelta());
+        if (cp.isAlreadyComplete()) {
+            stage.setDetail(detail(cp, null));
+            return;
+        }
+        TableWriter<T> writer = writer(table, repo);
+        ChunkWriter<T> out = new ChunkWriter<>(writer, chunkSize, stage, cp, raw(table));
+        readRows(reader, file, mapper, stage, cp, writer::resumedPast, (row, rowNum) -> {
+            stage.addParsed(1);
+            out.add(rowNum, row);
+        });
+        out.flush();
+        writer.finish();
+        cp.complete();
+        stage.setDetail(detail(cp, writer.summary()));
+    }
+
+    private void parseEmployees(ImportReport.Stage stage, SheetReader reader, Path file,
+            CompletableFuture<SheetCheckpoint> checkpoint, BlockingQueue<EmployeeRow> queue,
+            AtomicBoolean writerFailed) {
+        boolean complete = false;
+        try {
+            if (Files.exists(file)) {
+                SheetCheckpoint cp = checkpoints.open(ImportEntity.EMPLOYEE, file, resume, isDelta());
+                checkpoint.complete(cp);
+                if (cp.isAlreadyComplete()) {
+                    stage.setDetail(detail(cp, null));
+                    return;
+                }
+                readRows(reader, file, this::toEmployee, stage, cp,
+                        row -> put(queue, row.resumedPast(), writerFailed),
+                        (row, rowNum) -> {
+                            put(queue, row, writerFailed);
+                            stage.addParsed(1);
+                        });
+                complete = true;
+            }
+        } finally {
+            checkpoint.complete(null);
+            if (!writerFailed.get())
+                put(queue, complete ? END : ABORTED, writerFailed);
+        }
+    }
+
+    private void writeEmployees(ImportReport.Stage stage, SheetCheckpoint cp, BlockingQueue<EmployeeRow> queue) {
+        Map<String, Long> locByCode = new HashMap<>();
+        locationRepo.findAll().forEach(l -> {
+            if (l.getCode() != null)
+                locByCode.put(l.getCode(), l.getId());
+        });
+
+        TableWriter<Employee> writer = writer(BulkTable.EMPLOYEE, employeeRepo);
+        ChunkWriter<Employee> out = cp != null
+                ? new ChunkWriter<>(writer, chunkSize, stage, cp, raw(BulkTable.EMPLOYEE))
+                : null;
+        boolean complete = false;
+        try {
+            while (true) {
+                EmployeeRow row = queue.take();
+                if (row == END || row == ABORTED) {
+                    complete = row == END;
+                    break;
+                }
+                Employee e = row.employee();
+                if (row.resumed()) {
+                    writer.resumedPast(e);
+                    continue;
+                }
+                if (e.getLocationId() == null && row.locationCode() != null)
+                    e.setLocationId(locByCode.get(row.locationCode()));
+                out.add(row.rowNum(), e);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("employee writer interrupted");
+        }
+        if (out != null)
+            out.flush();
+        // a failed parse must not turn into deletes of the rows it never reached
+        if (complete) {
+            writer.finish();
+            cp.complete();
+        }
+        stage.setDetail(detail(cp, writer.summary()));
+    }
+
+    private static <T> Function<T, String> raw(BulkTable<T> table) {
+        return row -> Arrays.toString(table.values(row));
+    }
+
+    private static String detail(SheetCheckpoint cp, String summary) {
+        if (cp == null || cp.getResumeAfter() == 0)
+            return summary;
+        if (cp.isAlreadyComplete())
+            return "already imported";
+        String resumed = "resumed after row " + cp.getResumeAfter();
+        return summary != null ? resumed + ", " + summary : resumed;
+    }
+
+    /**
+     * Streams the sheet (header skipped) through {@code mapper}; null results
+     * are skipped and rejected rows are recorded. Rows an earlier run already
+     * committed go to {@code resumed} instead of {@code sink}.
+     */
+    private static <T> void readRows(SheetReader reader, Path file, Function<SheetRow, T> mapper,
+            ImportReport.Stage stage, SheetCheckpoint cp, Consumer<T> resumed, ObjIntConsumer<T> sink) {
+        boolean[] header = { true };
+        int resumeAfter = cp.getResumeAfter();
+        try {
+            reader.read(file, r -> {
+                if (header[0]) {
+                    header[0] = false;
+                    return;
+                }
+                int rowNum = r.getRowNum() + 1;
+                T item;
+                try {
+                    item = mapper.apply(r);
+                } catch (RowRejectedException ex) {
+                    if (rowNum > resumeAfter) {
+                        cp.reject(rowNum, ex.getMessage(), r.toString());
+                        stage.addRejected(1);
+                    }
+                    return;
+                }
+                if (item == null)
+                    return;
+                if (rowNum <= resumeAfter)
+                    resumed.accept(item);
+                else
+                    sink.accept(item, rowNum);
+            });
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(file.getFileName() + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    // bounded put that gives up once the consumer has died, so the parser cannot hang
+    private static <T> void put(BlockingQueue<T> queue, T item, AtomicBoolean consumerFailed) {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (consumerFailed.get())
+                    throw new CancellationException("employee writer failed");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("employee parser interrupted");
+        }
+    }
+
+    /* row mappers */
+    private Location toLocation(SheetRow r) {
+        String code = cellString(r, 0);
+        String name = cellString(r, 1);
+        if (code == null && name == null)
+            return null;
+        Location l = new Location();
+        l.setCode(nullable(code));
+        l.setName(nullable(name));
+        return l;
+    }
+
+    private Department toDepartment(SheetRow r) {
+        String code = cellString(r, 0);
+        String name = cellString(r, 1);
+        if (code == null && name == null)
+            return null;
+        Department d = new Department();
+        d.setCode(nullable(code));
+        d.setName(nullable(name));
+        return d;
+    }
+
+    private Tier toTier(SheetRow r) {
+        String code = cellString(r, 0);
+        String name = cellString(r, 1);
+        if (code == null && name == null)
+            return null;
+        Tier t = new Tier();
+        t.setCode(nullable(code));
+        t.setName(nullable(name));
+        return t;
+    }
+
+    private EmployeeRow toEmployee(SheetRow r) {
+        String empNo = cellString(r, 0); // emp_no
+        String name = cellString(r, 1); // name
+        String deptCode = cellString(r, 2); // dept_code
+        String locationCodeOrId = cellString(r, 3); // location code or id
+        String position = cellString(r, 4); // position
+        BigDecimal salary = cellNumeric(r, 5); // salary
+
+        if (empNo == null) {
+            if (name == null && deptCode == null && locationCodeOrId == null && position == null && salary == null)
+                return null;
+            throw new RowRejectedException("missing emp_no");
+        }
+        Employee e = new Employee();
+        e.setEmpNo(empNo);
+        e.setName(nullable(name));
+        e.setDeptCode(nullable(deptCode));
+        e.setPosition(nullable(position));
+        e.setSalary(salary);
+
+        // numeric values are ids; anything else is a location code resolved by the writer
+        String locationCode = null;
+        if (locationCodeOrId != null && !locationCodeOrId.isBlank()) {
+            try {
+                e.setLocationId(Long.parseLong(locationCodeOrId));
+            } catch (Exception ex) {
+                locationCode = locationCodeOrId;
+            }
+        }
+        return new EmployeeRow(e, locationCode, r.getRowNum() + 1, false);
+    }
+
+    /**
+     * Parsed employee waiting for its location code to be resolved, or (when
+     * {@code resumed}) a row committed by an earlier run that is only passed on
+     * to the writer's bookkeeping.
+     */
+    private record EmployeeRow(Employee employee, String locationCode, int rowNum, boolean resumed) {
+
+        EmployeeRow resumedPast() {
+            return new EmployeeRow(employee, locationCode, rowNum, true);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage timings and row counts of one import run. Counters are updated
+ * while the run is in progress, so the report doubles as a progress view.
+ */
+public class ImportReport {
+
+    private final long startNanos = System.nanoTime();
+    private final List<Stage> stages = Collections.synchronizedList(new ArrayList<>());
+    private volatile long endNanos;
+
+    public Stage stage(String name) {
+        Stage s = new Stage(name);
+        stages.add(s);
+        return s;
+    }
+
+    public List<Stage> getStages() {
+        synchronized (stages) {
+            return new ArrayList<>(stages);
+        }
+    }
+
+    public long getRowsParsed() {
+        return getStages().stream().mapToLong(Stage::getParsed).sum();
+    }
+
+    public long getRowsWritten() {
+        return getStages().stream().mapToLong(Stage::getWritten).sum();
+    }
+
+    public long getRowsRejected() {
+        return getStages().stream().mapToLong(Stage::getRejected).sum();
+    }
+
+    public boolean isFailed() {
+        return getStages().stream().anyMatch(s -> s.error != null);
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getElapsedMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    /** Rows written per second over the whole run so far. */
+    public double getThroughput() {
+        long nanos = (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+        return nanos == 0 ? 0 : getRowsWritten() * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Import finished in %d ms%n", getElapsedMillis()));
+        for (Stage s : getStages()) {
+            sb.append(String.format("  %-16s parsed=%-9d written=%-9d rejected=%-6d %7d ms %10.0f rows/s", s.name,
+                    s.parsed, s.written, s.rejected, s.getElapsedMillis(), s.getRowsPerSecond()));
+            if (s.detail != null)
+                sb.append("  ").append(s.detail);
+            if (s.error != null)
+                sb.append("  FAILED: ").append(s.error);
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Timed unit of work. Each counter has a single writer thread (the parser
+     * or the writer of the stage), so plain volatile increments are enough.
+     */
+    public static class Stage {
+        private final String name;
+        private volatile long parsed;
+        private volatile long written;
+        private volatile long rejected;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile String error;
+        private volatile String detail;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        void end() {
+            endNanos = System.nanoTime();
+        }
+
+        void fail(Throwable ex) {
+            error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            if (endNanos == 0)
+                endNanos = System.nanoTime();
+        }
+
+        void addParsed(long n) {
+            parsed += n;
+        }
+
+        void addWritten(long n) {
+            written += n;
+        }
+
+        void addRejected(long n) {
+            rejected += n;
+        }
+
+        void setDetail(String detail) {
+            this.detail = detail;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getParsed() {
+            return parsed;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+        }
+
+        public double getRowsPerSecond() {
+            long nanos = elapsedNanos();
+            return nanos == 0 ? 0 : Math.max(parsed, written) * 1e9 / nanos;
+        }
+
+        private long elapsedNanos() {
+            if (startNanos == 0)
+                return 0;
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return end - startNanos;
+        }
+    }
+}
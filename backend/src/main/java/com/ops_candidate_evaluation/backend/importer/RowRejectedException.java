@@ -0,0 +1,9 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+/** Thrown by a row mapper for a row that cannot be imported; the row goes to {@code import_reject}. */
+class RowRejectedException extends RuntimeException {
+
+    RowRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+/**
+ * Checkpoint of one sheet being imported. Row numbers are one-based sheet
+ * rows, as shown by a spreadsheet program (the header is row 1).
+ */
+final class SheetCheckpoint {
+
+    private final ImportCheckpoints store;
+    private final String entity;
+    private final String fingerprint;
+    private final int resumeAfter;
+    private final boolean alreadyComplete;
+
+    SheetCheckpoint(ImportCheckpoints store, String entity, String fingerprint, int resumeAfter,
+            boolean alreadyComplete) {
+        this.store = store;
+        this.entity = entity;
+        this.fingerprint = fingerprint;
+        this.resumeAfter = resumeAfter;
+        this.alreadyComplete = alreadyComplete;
+    }
+
+    String getEntity() {
+        return entity;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /** Rows up to and including this one were committed by an earlier run; 0 when starting fresh. */
+    int getResumeAfter() {
+        return resumeAfter;
+    }
+
+    /** The same file was imported completely before and is not read again. */
+    boolean isAlreadyComplete() {
+        return alreadyComplete;
+    }
+
+    void commit(Runnable write, int lastRow, long rows) {
+        store.commit(this, write, lastRow, rows);
+    }
+
+    void reject(int rowNum, String reason, String raw) {
+        store.reject(this, rowNum, reason, raw);
+    }
+
+    void complete() {
+        store.complete(this);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads the first sheet of a workbook and hands every physical row to the
+ * sink, header included, in sheet order.
+ */
+public interface SheetReader {
+
+    void read(Path file, Consumer<SheetRow> sink) throws Exception;
+
+    /** Picks a reader from the upload's file name: CSV by extension, XLSX otherwise. */
+    static SheetReader forFile(String fileName, String xlsxMode) {
+        if (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv"))
+            return new CsvSheetReader();
+        return forMode(xlsxMode);
+    }
+
+    /** Resolves the {@code app.import.reader} setting. */
+    static SheetReader forMode(String mode) {
+        if (mode == null || mode.isBlank() || mode.equalsIgnoreCase("streaming"))
+            return new StreamingSheetReader();
+        if (mode.equalsIgnoreCase("workbook"))
+            return new WorkbookSheetReader();
+        throw new IllegalArgumentException("Unknown app.import.reader: " + mode);
+    }
+}
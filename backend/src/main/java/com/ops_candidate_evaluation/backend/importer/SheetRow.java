@@ -0,0 +1,36 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.util.Arrays;
+
+/**
+ * One spreadsheet row as raw cell values. Each cell is a {@link String},
+ * {@link Double}, {@link Boolean} or {@code null} for a missing/blank cell.
+ */
+public final class SheetRow {
+
+    private final int rowNum;
+    private final Object[] cells;
+
+    public SheetRow(int rowNum, Object[] cells) {
+        this.rowNum = rowNum;
+        this.cells = cells;
+    }
+
+    /** Zero-based row index as stored in the sheet. */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    public Object get(int idx) {
+        return idx < cells.length ? cells[idx] : null;
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(cells);
+    }
+}
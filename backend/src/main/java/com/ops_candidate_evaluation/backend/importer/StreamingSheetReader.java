@@ -0,0 +1,159 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * SAX-based reader on top of {@link XSSFReader}. Rows are emitted as the
+ * sheet XML is parsed, so heap use does not depend on the number of rows;
+ * only the shared-strings table is held in memory.
+ */
+public class StreamingSheetReader implements SheetReader {
+
+    @Override
+    public void read(Path file, Consumer<SheetRow> sink) throws Exception {
+        OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        try {
+            read(pkg, sink);
+        } finally {
+            // read-only packages are reverted, not closed (close() would try to save)
+            pkg.revert();
+        }
+    }
+
+    void read(OPCPackage pkg, Consumer<SheetRow> sink) throws Exception {
+        XSSFReader reader = new XSSFReader(pkg);
+        SharedStrings strings = new ReadOnlySharedStringsTable(pkg, false);
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext())
+            return;
+        try (InputStream sheet = sheets.next()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new SheetHandler(strings, sink));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    /** Handles {@code <row>}/{@code <c>} elements of a worksheet part. */
+    private static final class SheetHandler extends DefaultHandler {
+        private final SharedStrings strings;
+        private final Consumer<SheetRow> sink;
+        private final StringBuilder text = new StringBuilder();
+
+        private Object[] cells = new Object[16];
+        private int width;
+        private int rowNum;
+        private int nextRowNum;
+        private int col;
+        private String cellType;
+        private boolean inValue;
+        private boolean hasValue;
+
+        SheetHandler(SharedStrings strings, Consumer<SheetRow> sink) {
+            this.strings = strings;
+            this.sink = sink;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row": {
+                    String r = attrs.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : nextRowNum;
+                    nextRowNum = rowNum + 1;
+                    width = 0;
+                    col = -1;
+                    break;
+                }
+                case "c": {
+                    String ref = attrs.getValue("r");
+                    col = ref != null ? columnIndex(ref) : col + 1;
+                    cellType = attrs.getValue("t");
+                    hasValue = false;
+                    text.setLength(0);
+                    break;
+                }
+                case "v":
+                case "t":
+                    // <t> only appears inside <is> for inline strings here
+                    inValue = true;
+                    hasValue = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue)
+                text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    inValue = false;
+                    break;
+                case "c":
+                    if (hasValue)
+                        put(col, value(cellType, text.toString()));
+                    break;
+                case "row":
+                    sink.accept(new SheetRow(rowNum, Arrays.copyOf(cells, width)));
+                    Arrays.fill(cells, 0, width, null);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private Object value(String type, String raw) {
+            if (type == null || type.equals("n"))
+                return raw.isEmpty() ? null : Double.parseDouble(raw);
+            switch (type) {
+                case "s":
+                    return strings.getItemAt(Integer.parseInt(raw)).getString();
+                case "b":
+                    return raw.equals("1");
+                default:
+                    // inlineStr, str (formula result) and e (error) stay textual
+                    return raw;
+            }
+        }
+
+        private void put(int idx, Object v) {
+            if (idx >= cells.length)
+                cells = Arrays.copyOf(cells, Math.max(idx + 1, cells.length * 2));
+            cells[idx] = v;
+            width = Math.max(width, idx + 1);
+        }
+
+        private static int columnIndex(String ref) {
+            int idx = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char ch = ref.charAt(i);
+                if (ch < 'A' || ch > 'Z')
+                    break;
+                idx = idx * 26 + (ch - 'A' + 1);
+            }
+            return idx - 1;
+        }
+    }
+}
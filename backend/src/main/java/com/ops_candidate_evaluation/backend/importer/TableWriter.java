@@ -0,0 +1,23 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import java.util.List;
+
+/** Destination for one table's rows during a single import run. */
+@FunctionalInterface
+interface TableWriter<T> {
+
+    void write(List<T> rows);
+
+    /** Row committed by an earlier, interrupted run of the same file; it is not written again. */
+    default void resumedPast(T row) {
+    }
+
+    /** Called once after the last chunk of a sheet that was read successfully. */
+    default void finish() {
+    }
+
+    /** Optional one-line outcome for the import report. */
+    default String summary() {
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Loads the whole workbook with {@link XSSFWorkbook}. Simple, but the DOM
+ * grows with the sheet, so only suitable for small files.
+ */
+public class WorkbookSheetReader implements SheetReader {
+
+    @Override
+    public void read(Path file, Consumer<SheetRow> sink) throws Exception {
+        try (InputStream is = Files.newInputStream(file);
+                Workbook wb = new XSSFWorkbook(is)) {
+            Sheet s = wb.getSheetAt(0);
+            for (Row r : s) {
+                int width = Math.max(r.getLastCellNum(), 0);
+                Object[] cells = new Object[width];
+                for (int i = 0; i < width; i++)
+                    cells[i] = cellValue(r.getCell(i, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL));
+                sink.accept(new SheetRow(r.getRowNum(), cells));
+            }
+        }
+    }
+
+    private static Object cellValue(Cell c) {
+        if (c == null)
+            return null;
+        switch (c.getCellType()) {
+            case STRING:
+                return c.getStringCellValue();
+            case NUMERIC:
+                return c.getNumericCellValue();
+            case BOOLEAN:
+                return c.getBooleanCellValue();
+            case BLANK:
+                return null;
+            default:
+                return c.toString();
+        }
+    }
+}
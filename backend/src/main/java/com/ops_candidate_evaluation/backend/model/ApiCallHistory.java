@@ -19,6 +19,10 @@ public class ApiCallHistory {
     @Column(name = "path")
     private String path;
 
+    // matched handler pattern, e.g. /api/employee/{id}; the rollups group by it
+    @Column(name = "route")
+    private String route;
+
     @Column(name = "status")
     private Integer status;
 
@@ -60,6 +64,14 @@ public class ApiCallHistory {
         this.path = path;
     }
 
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
     public Integer getStatus() {
         return status;
     }
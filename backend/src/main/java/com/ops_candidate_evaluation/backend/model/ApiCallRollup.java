@@ -0,0 +1,7 @@
+package com.ops_candidate_evaluation.backend.model;
+
+import java.time.OffsetDateTime;
+
+/** Number of API calls per (method, route, status) in one time bucket, read from api_call_rollup. */
+public record ApiCallRollup(OffsetDateTime bucket, String method, String route, Integer status, Long calls) {
+}
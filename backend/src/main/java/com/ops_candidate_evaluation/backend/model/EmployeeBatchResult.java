@@ -0,0 +1,10 @@
+package com.ops_candidate_evaluation.backend.model;
+
+/**
+ * Outcome of one item of a batch employee request; {@code index} is its
+ * position in the request array. {@code status} is one of created, updated,
+ * deleted, duplicate, not_found, conflict, invalid or failed; message is set
+ * for the last four.
+ */
+public record EmployeeBatchResult(int index, Long id, String empNo, String status, String message) {
+}
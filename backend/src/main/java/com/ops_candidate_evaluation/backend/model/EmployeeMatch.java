@@ -0,0 +1,9 @@
+package com.ops_candidate_evaluation.backend.model;
+
+/**
+ * One employee found by the search; {@code match} says where the query
+ * matched: {@code prefix} (start of emp_no or name), {@code word} (start of a
+ * later word) or {@code substring}.
+ */
+public record EmployeeMatch(Long id, String empNo, String name, String match) {
+}
@@ -0,0 +1,7 @@
+package com.ops_candidate_evaluation.backend.model;
+
+import java.util.List;
+
+/** One keyset page; {@code nextCursor} is null on the last page. */
+public record EmployeePage(List<EmployeeSummary> items, String nextCursor) {
+}
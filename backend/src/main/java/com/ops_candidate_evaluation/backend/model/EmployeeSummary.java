@@ -0,0 +1,8 @@
+package com.ops_candidate_evaluation.backend.model;
+
+import java.math.BigDecimal;
+
+/** Read-only employee row for listings; same JSON fields as {@link Employee}. */
+public record EmployeeSummary(Long id, String empNo, String name, String deptCode, Long locationId,
+        String position, BigDecimal salary) {
+}
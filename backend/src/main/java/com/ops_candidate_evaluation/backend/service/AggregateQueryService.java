@@ -0,0 +1,292 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ad-hoc GROUP BY over employee with its department and location, for
+ * questions the fixed reports do not answer. Dimensions, metrics and filter
+ * fields come from fixed whitelists and every value is a bind parameter, so
+ * the SQL text depends only on the shape of the request (which dimensions,
+ * metrics, filter fields and operators, sort). The text is generated once per
+ * shape; since it is identical every time, pgjdbc switches a connection to a
+ * server-side prepared statement after {@code prepareThreshold} executions and
+ * PostgreSQL can keep the plan. A row limit and a statement timeout keep one
+ * query from holding a pooled connection for long.
+ */
+@Service
+public class AggregateQueryService {
+
+    // name -> expression, with the same UNASSIGNED fallbacks as the reports
+    public static final Map<String, String> DIMENSIONS = ordered(
+            "location", "COALESCE(l.name, 'UNASSIGNED')",
+            "location_code", "l.code",
+            "department", "COALESCE(NULLIF(d.name, ''), 'UNASSIGNED')",
+            "dept_code", "e.dept_code",
+            "position", "e.position");
+    // numeric columns a metric can aggregate or a filter can compare
+    public static final Map<String, String> MEASURES = ordered("salary", "e.salary");
+    public static final List<String> FUNCTIONS = List.of("count", "sum", "avg", "min", "max");
+
+    private static final List<String> OPERATORS = List.of("=", "!=", "<", "<=", ">", ">=");
+    // shapes are bounded by the whitelists, but their combinations are many
+    static final int MAX_SHAPES = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final Map<Shape, String> statements = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Value("${app.query.aggregate.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${app.query.aggregate.timeout-ms:5000}")
+    private long timeoutMs;
+
+    public AggregateQueryService(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Runs the aggregation. {@code groupBy} and {@code metrics} are
+     * comma-separated; {@code filter} is {@code ;}-separated conditions such as
+     * {@code department=Sales|Ops;salary>=50000}; {@code sort} is
+     * comma-separated output columns, {@code -} for descending. Throws
+     * IllegalArgumentException for anything outside the whitelists.
+     */
+    public Result aggregate(String groupBy, String metrics, String filter, String sort, Integer limit) {
+        int rows = limit != null ? limit : maxRows;
+        if (rows < 1 || rows > maxRows)
+            throw new IllegalArgumentException("limit must be between 1 and " + maxRows);
+        List<Object> params = new ArrayList<>();
+        List<String> dimensions = dimensions(groupBy);
+        List<Metric> selected = metrics(metrics);
+        Shape shape = new Shape(dimensions, selected, filters(filter, params), sort(sort, dimensions, selected));
+        String sql = statement(shape);
+        // one row more than asked for tells whether the result was cut
+        params.add(rows + 1);
+        Object[] args = params.toArray();
+        List<Map<String, Object>> result = readOnlyTx.execute(status -> {
+            // LOCAL: ends with the transaction, the pooled connection keeps its default
+            jdbc.execute("SET LOCAL statement_timeout = " + timeoutMs);
+            return jdbc.queryForList(sql, args);
+        });
+        boolean truncated = result.size() > rows;
+        return new Result(truncated ? result.subList(0, rows) : result, truncated);
+    }
+
+    /** True when {@code ex} is PostgreSQL cancelling a statement, as statement_timeout does. */
+    public static boolean isTimeout(DataAccessException ex) {
+        for (Throwable t = ex; t != null; t = t.getCause())
+            if (t instanceof SQLException sql && "57014".equals(sql.getSQLState()))
+                return true;
+        return false;
+    }
+
+    public Stats stats() {
+        return new Stats(statements.size(), hits.sum(), misses.sum());
+    }
+
+    private String statement(Shape shape) {
+        String sql = statements.get(shape);
+        if (sql != null) {
+            hits.increment();
+            return sql;
+        }
+        misses.increment();
+        if (statements.size() >= MAX_SHAPES)
+            statements.clear();
+        return statements.computeIfAbsent(shape, AggregateQueryService::generate);
+    }
+
+    private static String generate(Shape shape) {
+        StringBuilder select = new StringBuilder();
+        for (String d : shape.groupBy())
+            select.append(select.isEmpty() ? "" : ", ").append(DIMENSIONS.get(d)).append(" AS \"").append(d)
+                    .append('"');
+        for (Metric m : shape.metrics())
+            select.append(select.isEmpty() ? "" : ", ").append(m.sql()).append(" AS \"").append(m.name())
+                    .append('"');
+        StringBuilder sql = new StringBuilder("SELECT ").append(select)
+                .append(" FROM employee e ")
+                .append("LEFT JOIN department d ON d.code::text = e.dept_code::text ")
+                .append("LEFT JOIN location l ON l.id = e.location_id");
+        for (int i = 0; i < shape.filters().size(); i++)
+            sql.append(i == 0 ? " WHERE " : " AND ").append(shape.filters().get(i));
+        if (!shape.groupBy().isEmpty()) {
+            sql.append(" GROUP BY ");
+            for (int i = 1; i <= shape.groupBy().size(); i++)
+                sql.append(i > 1 ? ", " : "").append(i);
+        }
+        if (!shape.sort().isEmpty())
+            sql.append(" ORDER BY ").append(String.join(", ", shape.sort()));
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    private static List<String> dimensions(String groupBy) {
+        List<String> result = new ArrayList<>();
+        for (String name : split(groupBy, ",", true)) {
+            if (!DIMENSIONS.containsKey(name))
+                throw new IllegalArgumentException("Unknown dimension: " + name + " (expected one of "
+                        + DIMENSIONS.keySet() + ")");
+            if (result.contains(name))
+                throw new IllegalArgumentException("Dimension listed twice: " + name);
+            result.add(name);
+        }
+        return result;
+    }
+
+    // count, count(salary), sum|avg|min|max(salary); none at all means count
+    private static List<Metric> metrics(String metrics) {
+        List<Metric> result = new ArrayList<>();
+        List<String> names = split(metrics, ",", true);
+        for (String metric : names.isEmpty() ? List.of("count") : names) {
+            String fn = metric, column = null;
+            int open = metric.indexOf('(');
+            if (open >= 0) {
+                if (!metric.endsWith(")"))
+                    throw new IllegalArgumentException("Malformed metric: " + metric);
+                fn = metric.substring(0, open).trim();
+                column = metric.substring(open + 1, metric.length() - 1).trim();
+            }
+            if (!FUNCTIONS.contains(fn))
+                throw new IllegalArgumentException("Unknown metric function: " + fn + " (expected one of "
+                        + FUNCTIONS + ")");
+            Metric m;
+            if (column == null) {
+                if (!fn.equals("count"))
+                    throw new IllegalArgumentException(fn + " needs a column, e.g. " + fn + "(salary)");
+                m = new Metric("count", "COUNT(*)");
+            } else {
+                String expr = MEASURES.get(column);
+                if (expr == null)
+                    throw new IllegalArgumentException("Unknown metric column: " + column + " (expected one of "
+                            + MEASURES.keySet() + ")");
+                // averages rounded like q2's
+                m = new Metric(fn + "_" + column, fn.equals("avg") ? "ROUND(AVG(" + expr + "), 2)"
+                        : fn.toUpperCase(Locale.ROOT) + "(" + expr + ")");
+            }
+            if (result.stream().anyMatch(r -> r.name().equals(m.name())))
+                throw new IllegalArgumentException("Metric listed twice: " + metric);
+            result.add(m);
+        }
+        return result;
+    }
+
+    // field op value; text fields take = or != with |-separated alternatives, measures take one number.
+    // The operator is the first of = ! < > in the condition, with a following = where that makes one.
+    private static List<String> filters(String filter, List<Object> params) {
+        List<String> result = new ArrayList<>();
+        for (String condition : split(filter, ";", false)) {
+            int at = 0;
+            while (at < condition.length() && "=!<>".indexOf(condition.charAt(at)) < 0)
+                at++;
+            String op = at < condition.length() ? condition.substring(at, at + 1) : "";
+            if (!op.equals("=") && condition.startsWith("=", at + 1))
+                op += "=";
+            if (at == 0 || !OPERATORS.contains(op))
+                throw new IllegalArgumentException("Malformed filter: " + condition + " (expected field, one of "
+                        + OPERATORS + ", value)");
+            String field = condition.substring(0, at).trim().toLowerCase(Locale.ROOT);
+            String value = condition.substring(at + op.length()).trim();
+            String dimension = DIMENSIONS.get(field), measure = MEASURES.get(field);
+            if (dimension != null) {
+                if (!op.equals("=") && !op.equals("!="))
+                    throw new IllegalArgumentException(field + " only takes = or !=");
+                params.add(value.split("\\|", -1));
+                // != keeps rows where the field is NULL
+                result.add(op.equals("=") ? dimension + " = ANY(?)" : "COALESCE(" + dimension + " <> ALL(?), true)");
+            } else if (measure != null) {
+                try {
+                    params.add(new BigDecimal(value));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Not a number in filter " + condition);
+                }
+                result.add(measure + " " + (op.equals("!=") ? "<>" : op) + " ?");
+            } else {
+                throw new IllegalArgumentException("Unknown filter field: " + field);
+            }
+        }
+        return result;
+    }
+
+    // output columns only; by default the dimensions in order
+    private static List<String> sort(String sort, List<String> dimensions, List<Metric> metrics) {
+        List<String> columns = new ArrayList<>(dimensions);
+        metrics.forEach(m -> columns.add(m.name()));
+        List<String> keys = split(sort, ",", true);
+        List<String> result = new ArrayList<>();
+        if (keys.isEmpty()) {
+            for (int i = 1; i <= dimensions.size(); i++)
+                result.add(String.valueOf(i));
+            return result;
+        }
+        for (String key : keys) {
+            boolean descending = key.startsWith("-");
+            String column = descending ? key.substring(1) : key;
+            int position = columns.indexOf(column);
+            if (position < 0)
+                throw new IllegalArgumentException("Cannot sort by " + column + " (expected one of " + columns + ")");
+            result.add((position + 1) + (descending ? " DESC" : ""));
+        }
+        return result;
+    }
+
+    private static List<String> split(String value, String separator, boolean lowerCase) {
+        List<String> parts = new ArrayList<>();
+        if (value == null)
+            return parts;
+        for (String part : value.split(separator)) {
+            String p = part.trim();
+            if (!p.isEmpty())
+                parts.add(lowerCase ? p.toLowerCase(Locale.ROOT) : p);
+        }
+        return parts;
+    }
+
+    private static Map<String, String> ordered(String... pairs) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2)
+            map.put(pairs[i], pairs[i + 1]);
+        return Collections.unmodifiableMap(map);
+    }
+
+    // everything the SQL text depends on; the values are parameters
+    private record Shape(List<String> groupBy, List<Metric> metrics, List<String> filters, List<String> sort) {
+    }
+
+    private record Metric(String name, String sql) {
+    }
+
+    public record Result(List<Map<String, Object>> rows, boolean truncated) {
+    }
+
+    public record Stats(int shapes, long hits, long misses) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ThreadMode;
+import com.ops_candidate_evaluation.backend.model.ApiCallHistory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind for {@code api_call_history}. Request threads only put the row
+ * on a bounded {@link MpscRingBuffer}; one background thread drains it and
+ * inserts in JDBC batches of {@code app.audit.batch-size} rows, or whatever
+ * has arrived once the oldest queued row is {@code app.audit.flush-interval-ms}
+ * old. What happens when the buffer is full is set by {@code app.audit.overflow}.
+ * Each batch also adds its per-minute counts to {@code api_call_rollup} in the
+ * same transaction.
+ */
+@Service
+@DependsOn("apiCallHistoryPartitions") // today's partition must exist before the first insert
+public class ApiCallAuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiCallAuditWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO api_call_history "
+            + "(timestamp, method, path, route, status, user_identifier) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ROLLUP_SQL = "INSERT INTO api_call_rollup (minute, method, route, status, calls) "
+            + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (minute, method, route, status) "
+            + "DO UPDATE SET calls = api_call_rollup.calls + EXCLUDED.calls";
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    public enum Overflow {
+        /** Drop the new row. */
+        DROP,
+        /** Keep one row in {@code app.audit.sample-rate} once the buffer is half full, drop when full. */
+        SAMPLE,
+        /** Wait up to {@code app.audit.block-timeout-ms} for space, then drop. */
+        BLOCK
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ThreadMode threads;
+    private final MpscRingBuffer<ApiCallHistory> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Overflow overflow;
+    private final int sampleRate;
+    private final long blockTimeoutNanos;
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private Thread writer;
+    private volatile boolean closed;
+
+    public ApiCallAuditWriter(JdbcTemplate jdbc, TransactionTemplate tx, ThreadMode threads,
+            @Value("${app.audit.buffer-size:8192}") int bufferSize,
+            @Value("${app.audit.batch-size:500}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${app.audit.overflow:drop}") String overflow,
+            @Value("${app.audit.sample-rate:10}") int sampleRate,
+            @Value("${app.audit.block-timeout-ms:1000}") long blockTimeoutMs) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.threads = threads;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflow = Overflow.valueOf(overflow.trim().toUpperCase(Locale.ROOT));
+        this.sampleRate = Math.max(1, sampleRate);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = threads.newThread("api-audit-writer", this::drain);
+        writer.start();
+    }
+
+    // the web server has stopped taking requests by now; write out what is left
+    @PreDestroy
+    void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(writer);
+        writer.join(SHUTDOWN_TIMEOUT_MS);
+        if (writer.isAlive())
+            log.warn("API call audit writer did not finish within {} ms, about {} rows not written",
+                    SHUTDOWN_TIMEOUT_MS, buffer.size());
+    }
+
+    /** Queues one row; never blocks unless the overflow policy is BLOCK. */
+    public void record(ApiCallHistory call) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        boolean accepted = switch (overflow) {
+            case DROP -> buffer.offer(call);
+            case SAMPLE -> offerSampled(call);
+            case BLOCK -> offerBlocking(call);
+        };
+        if (!accepted) {
+            dropped.increment();
+            return;
+        }
+        enqueued.increment();
+        // a full batch is waiting, no need to sit out the flush interval
+        if (buffer.size() >= batchSize)
+            LockSupport.unpark(writer);
+    }
+
+    private boolean offerSampled(ApiCallHistory call) {
+        if (buffer.size() >= buffer.capacity() / 2 && sampleCounter.getAndIncrement() % sampleRate != 0)
+            return false;
+        return buffer.offer(call);
+    }
+
+    private boolean offerBlocking(ApiCallHistory call) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (!buffer.offer(call)) {
+            if (closed || System.nanoTime() - deadline >= 0)
+                return false;
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    public Stats stats() {
+        return new Stats(overflow.name().toLowerCase(Locale.ROOT), buffer.capacity(), buffer.size(),
+                enqueued.sum(), written.sum(), dropped.sum(), failed.sum());
+    }
+
+    private void drain() {
+        List<ApiCallHistory> batch = new ArrayList<>(batchSize);
+        long flushAt = 0;
+        while (true) {
+            ApiCallHistory call;
+            while (batch.size() < batchSize && (call = buffer.poll()) != null) {
+                // the interval counts from when the oldest row was recorded, not from when it was polled
+                if (batch.isEmpty())
+                    flushAt = call.getTimestamp().toEpochMilli() + flushIntervalMs;
+                batch.add(call);
+            }
+            boolean stopping = closed;
+            long now = System.currentTimeMillis();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && (stopping || now >= flushAt))) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            if (stopping && batch.isEmpty() && buffer.size() == 0)
+                return;
+            long waitMs = batch.isEmpty() ? flushIntervalMs : flushAt - now;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, waitMs)));
+        }
+    }
+
+    private void write(List<ApiCallHistory> batch) {
+        Map<RollupKey, Long> rollup = new HashMap<>();
+        for (ApiCallHistory call : batch)
+            rollup.merge(RollupKey.of(call), 1L, Long::sum);
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, call) -> {
+                    ps.setObject(1, utc(call.getTimestamp()));
+                    ps.setString(2, call.getMethod());
+                    ps.setString(3, call.getPath());
+                    ps.setString(4, call.getRoute());
+                    ps.setObject(5, call.getStatus(), Types.INTEGER);
+                    ps.setString(6, call.getUserIdentifier());
+                });
+                List<Map.Entry<RollupKey, Long>> counts = new ArrayList<>(rollup.entrySet());
+                jdbc.batchUpdate(ROLLUP_SQL, counts, counts.size(), (ps, count) -> {
+                    RollupKey key = count.getKey();
+                    ps.setObject(1, utc(key.minute()));
+                    ps.setString(2, key.method());
+                    ps.setString(3, key.route());
+                    ps.setInt(4, key.status());
+                    ps.setLong(5, count.getValue());
+                });
+            });
+            written.add(batch.size());
+        } catch (RuntimeException ex) {
+            failed.add(batch.size());
+            log.warn("Failed to write {} API call rows: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private record RollupKey(Instant minute, String method, String route, int status) {
+
+        static RollupKey of(ApiCallHistory call) {
+            String route = call.getRoute() != null ? call.getRoute() : call.getPath();
+            return new RollupKey(call.getTimestamp().truncatedTo(ChronoUnit.MINUTES),
+                    call.getMethod() != null ? call.getMethod() : "",
+                    route != null ? route : "",
+                    call.getStatus() != null ? call.getStatus() : 0);
+        }
+    }
+
+    public record Stats(String overflow, int capacity, int queued, long enqueued, long written, long dropped,
+            long failed) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code api_call_history} range-partitioned by UTC day on
+ * {@code timestamp}: partitions are created {@code app.audit.partition-days-ahead}
+ * days in advance, and whole partitions older than {@code app.audit.retention-days}
+ * are dropped instead of deleting rows. Old rows of {@code api_call_rollup},
+ * the per-minute call counts written by {@link ApiCallAuditWriter}, are
+ * deleted after {@code app.audit.rollup-retention-days}. Both tables are
+ * created by the migrations ({@code V2__partition_api_call_history.sql}).
+ */
+@Service
+public class ApiCallHistoryPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiCallHistoryPartitions.class);
+
+    private static final String PARTITION_PREFIX = "api_call_history_p";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbc;
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-audit-partitions");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.audit.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.audit.partition-days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${app.audit.rollup-retention-days:365}")
+    private int rollupRetentionDays;
+
+    public ApiCallHistoryPartitions(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    void init() {
+        maintain();
+        // partitions for the coming days exist well before they are needed, so hourly is plenty
+        maintenance.scheduleWithFixedDelay(this::maintainQuietly, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /** Creates the partitions up to {@code daysAhead} and drops the expired ones. */
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= daysAhead; i++)
+            createPartition(today.plusDays(i));
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (String partition : partitions()) {
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DAY);
+            if (!day.plusDays(1).isAfter(cutoff)) {
+                jdbc.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired API call partition {}", partition);
+            }
+        }
+        // the rollup is small enough for a plain DELETE
+        jdbc.update("DELETE FROM api_call_rollup WHERE minute < ?",
+                today.minusDays(rollupRetentionDays).atStartOfDay().atOffset(ZoneOffset.UTC));
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException ex) {
+            log.warn("API call partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    private List<String> partitions() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'api_call_history'::regclass AND c.relname ~ '^" + PARTITION_PREFIX
+                + "[0-9]{8}$' ORDER BY c.relname", String.class);
+    }
+
+    private void createPartition(LocalDate day) {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(PARTITION_DAY)
+                + " PARTITION OF api_call_history FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('"
+                + day.plusDays(1) + " 00:00:00+00')");
+    }
+}
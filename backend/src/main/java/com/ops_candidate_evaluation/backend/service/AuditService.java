@@ -0,0 +1,105 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.model.ApiCallHistory;
+import com.ops_candidate_evaluation.backend.model.ApiCallRollup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads of the API call audit. Dashboards go through the per-minute rollup;
+ * raw rows are only served for windows up to {@code app.audit.raw-max-window-minutes},
+ * so a query never touches more than one or two day partitions.
+ */
+@Service
+public class AuditService {
+
+    public static final List<String> BUCKETS = List.of("minute", "hour", "day");
+    public static final int MAX_CALLS = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${app.audit.raw-max-window-minutes:60}")
+    private long rawMaxWindowMinutes;
+
+    public AuditService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Call counts in [from, to) per bucket (minute, hour or day, in UTC), method, route and status. */
+    public List<ApiCallRollup> rollup(Instant from, Instant to, String bucket, String method, String route,
+            Integer status) {
+        checkWindow(from, to);
+        String unit = bucket == null || bucket.isBlank() ? "minute" : bucket.toLowerCase(Locale.ROOT);
+        if (!BUCKETS.contains(unit))
+            throw new IllegalArgumentException("bucket must be one of " + BUCKETS);
+        List<Object> args = new ArrayList<>();
+        args.add(unit);
+        String where = filters(" WHERE minute >= ? AND minute < ?", from, to, method, route, status, args);
+        // unit is bound as a parameter; date_trunc's third argument pins the bucket edges to UTC
+        String sql = "SELECT date_trunc(?, minute, 'UTC') AS bucket, method, route, status, SUM(calls) AS calls "
+                + "FROM api_call_rollup" + where + " GROUP BY 1, 2, 3, 4 ORDER BY 1, 2, 3, 4";
+        return jdbc.query(sql, new DataClassRowMapper<>(ApiCallRollup.class), args.toArray());
+    }
+
+    /** Raw calls in [from, to), newest first; the window may be at most app.audit.raw-max-window-minutes. */
+    public List<ApiCallHistory> calls(Instant from, Instant to, String method, String route, Integer status,
+            int limit) {
+        checkWindow(from, to);
+        if (Duration.between(from, to).toMinutes() > rawMaxWindowMinutes)
+            throw new IllegalArgumentException("raw calls are limited to a " + rawMaxWindowMinutes
+                    + " minute window, use the rollup for longer ranges");
+        if (limit < 1 || limit > MAX_CALLS)
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CALLS);
+        List<Object> args = new ArrayList<>();
+        String where = filters(" WHERE timestamp >= ? AND timestamp < ?", from, to, method, route, status, args);
+        args.add(limit);
+        String sql = "SELECT id, timestamp, method, path, route, status, user_identifier FROM api_call_history"
+                + where + " ORDER BY timestamp DESC, id DESC LIMIT ?";
+        return jdbc.query(sql, (rs, rowNum) -> {
+            ApiCallHistory h = new ApiCallHistory();
+            h.setId(rs.getLong("id"));
+            h.setTimestamp(rs.getObject("timestamp", OffsetDateTime.class).toInstant());
+            h.setMethod(rs.getString("method"));
+            h.setPath(rs.getString("path"));
+            h.setRoute(rs.getString("route"));
+            h.setStatus(rs.getObject("status", Integer.class));
+            h.setUserIdentifier(rs.getString("user_identifier"));
+            return h;
+        }, args.toArray());
+    }
+
+    private static void checkWindow(Instant from, Instant to) {
+        if (!from.isBefore(to))
+            throw new IllegalArgumentException("from must be before to");
+    }
+
+    private static String filters(String range, Instant from, Instant to, String method, String route,
+            Integer status, List<Object> args) {
+        StringBuilder where = new StringBuilder(range);
+        args.add(from.atOffset(ZoneOffset.UTC));
+        args.add(to.atOffset(ZoneOffset.UTC));
+        if (method != null && !method.isBlank()) {
+            where.append(" AND method = ?");
+            args.add(method.toUpperCase(Locale.ROOT));
+        }
+        if (route != null && !route.isBlank()) {
+            where.append(" AND route = ?");
+            args.add(route);
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            args.add(status);
+        }
+        return where.toString();
+    }
+}
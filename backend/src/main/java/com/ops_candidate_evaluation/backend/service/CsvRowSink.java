@@ -0,0 +1,79 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Writes rows as RFC 4180 CSV with a header line, the format the CSV import
+ * reads: a BOM so spreadsheet programs take it as UTF-8, CRLF line ends, NULL
+ * as an empty field and an empty string as {@code ""}. Holds no rows; the
+ * writer should be buffered.
+ */
+public class CsvRowSink implements RowSink {
+
+    private final Writer out;
+
+    public CsvRowSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void columns(List<String> names) {
+        try {
+            out.write('\uFEFF');
+            line(names.toArray());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void row(Object[] values) {
+        try {
+            line(values);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void end() {
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void line(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                out.write(',');
+            Object v = values[i];
+            if (v == null)
+                continue;
+            // plain notation: 1E+3 would not read back as a number everywhere
+            String s = v instanceof BigDecimal b ? b.toPlainString() : v.toString();
+            if (s.isEmpty() || needsQuotes(s)) {
+                out.write('"');
+                out.write(s.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(s);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static boolean needsQuotes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n')
+                return true;
+        }
+        return false;
+    }
+}
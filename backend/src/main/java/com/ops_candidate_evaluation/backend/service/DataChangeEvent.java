@@ -0,0 +1,26 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.Collection;
+
+/**
+ * Published after rows of {@code table} were written, either through a
+ * service or by an import, or after a derived table was refreshed. Listeners
+ * keep derived data (snapshots, caches) in step with the tables. {@code ids}
+ * names the rows written (inserted, updated or deleted) when the writer knows
+ * them, so a listener can update just those; it is null for an import or a
+ * refresh, which may have changed anything.
+ */
+public record DataChangeEvent(String table, Collection<Long> ids) {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String LOCATION = "location";
+    public static final String DEPARTMENT = "department";
+    public static final String TIER = "tier";
+    public static final String Q3_SALARY_RANK = "q3_salary_rank";
+    // the in-memory copy behind impl=memory, not a table
+    public static final String EMPLOYEE_COLUMNS = "employee_columns";
+
+    public DataChangeEvent(String table) {
+        this(table, null);
+    }
+}
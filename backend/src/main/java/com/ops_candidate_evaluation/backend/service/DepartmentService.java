@@ -2,36 +2,56 @@ package com.ops_candidate_evaluation.backend.service;
 
 import com.ops_candidate_evaluation.backend.model.Department;
 import com.ops_candidate_evaluation.backend.repository.DepartmentRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class DepartmentService {
     private final DepartmentRepository repo;
+    private final ReferenceCache<Department> cache;
+    private final ApplicationEventPublisher events;
 
-    public DepartmentService(DepartmentRepository repo) {
+    public DepartmentService(DepartmentRepository repo, ReferenceCaches caches, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.cache = caches.departments();
+        this.events = events;
     }
 
     public List<Department> list() {
-        return repo.findAll();
+        return cache.list(repo::findAll);
     }
 
     public Department get(Long id) {
-        return repo.findById(id).orElseThrow();
+        return cache.byId(id, repo::findById).orElseThrow();
+    }
+
+    public Optional<Department> findByCode(String code) {
+        return cache.byCode(code, repo::findByCode);
     }
 
     public Department create(Department d) {
-        return repo.save(d);
+        Department saved = repo.save(d);
+        changed();
+        return saved;
     }
 
     public Department update(Long id, Department d) {
         d.setId(id);
-        return repo.save(d);
+        Department saved = repo.save(d);
+        changed();
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        changed();
+    }
+
+    // also drops the cached departments
+    private void changed() {
+        events.publishEvent(new DataChangeEvent(DataChangeEvent.DEPARTMENT));
     }
 }
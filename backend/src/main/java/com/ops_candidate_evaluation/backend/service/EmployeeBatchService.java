@@ -0,0 +1,229 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.model.Employee;
+import com.ops_candidate_evaluation.backend.model.EmployeeBatchResult;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Batch create/update/delete of employees. Items are written in chunks of
+ * {@link #CHUNK_SIZE}, one transaction and one round-trip per chunk. If a
+ * chunk fails as a whole (a constraint other than the emp_no conflict), it is
+ * rolled back and redone item by item behind savepoints, so only the
+ * offending items are reported as failed.
+ */
+@Service
+public class EmployeeBatchService {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+    static final int CHUNK_SIZE = 500;
+
+    // pgjdbc rewrites batched INSERTs into multi-row statements (reWriteBatchedInserts) and then
+    // reports no per-row counts, so a chunk is inserted as one statement whose RETURNING names the new rows
+    private static final String INSERT_CHUNK_SQL = "INSERT INTO employee (emp_no, name, dept_code, location_id, "
+            + "position, salary) SELECT * FROM unnest(?::text[], ?::text[], ?::text[], ?::bigint[], ?::text[], "
+            + "?::numeric[]) ON CONFLICT (emp_no) DO NOTHING RETURNING id, emp_no";
+    private static final String INSERT_ONE_SQL = "INSERT INTO employee (emp_no, name, dept_code, location_id, "
+            + "position, salary) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (emp_no) DO NOTHING RETURNING id";
+    private static final String UPDATE_SQL = "UPDATE employee SET emp_no = ?, name = ?, dept_code = ?, "
+            + "location_id = ?, position = ?, salary = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM employee WHERE id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+
+    public EmployeeBatchService(JdbcTemplate jdbc, TransactionTemplate tx, ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+    }
+
+    /** Inserts new employees; an emp_no that already exists (or repeats in the request) is a duplicate. */
+    public List<EmployeeBatchResult> create(List<Employee> items) {
+        checkSize(items);
+        EmployeeBatchResult[] results = new EmployeeBatchResult[items.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Employee e = items.get(i);
+            if (e == null || e.getEmpNo() == null || e.getEmpNo().isBlank())
+                results[i] = result(i, null, e, "invalid", "emp_no is required");
+            else
+                valid.add(i);
+        }
+        write(valid, results, i -> result(i, null, items.get(i), null, null), chunk -> {
+            int n = chunk.size();
+            String[] empNo = new String[n], name = new String[n], dept = new String[n], location = new String[n],
+                    position = new String[n], salary = new String[n];
+            for (int k = 0; k < n; k++) {
+                Employee e = items.get(chunk.get(k));
+                empNo[k] = e.getEmpNo();
+                name[k] = e.getName();
+                dept[k] = e.getDeptCode();
+                location[k] = e.getLocationId() != null ? e.getLocationId().toString() : null;
+                position[k] = e.getPosition();
+                salary[k] = e.getSalary() != null ? e.getSalary().toPlainString() : null;
+            }
+            Map<String, Long> created = new HashMap<>();
+            jdbc.query(INSERT_CHUNK_SQL, rs -> {
+                created.put(rs.getString(2), rs.getLong(1));
+            }, empNo, name, dept, location, position, salary);
+            for (int i : chunk) {
+                Employee e = items.get(i);
+                // remove() so a second item with the same emp_no is reported as the duplicate
+                Long id = created.remove(e.getEmpNo());
+                results[i] = id != null ? result(i, id, e, "created", null)
+                        : result(i, null, e, "duplicate", "emp_no already exists");
+            }
+        }, i -> {
+            Employee e = items.get(i);
+            List<Long> id = jdbc.queryForList(INSERT_ONE_SQL, Long.class, e.getEmpNo(), e.getName(),
+                    e.getDeptCode(), e.getLocationId(), e.getPosition(), e.getSalary());
+            results[i] = id.isEmpty() ? result(i, null, e, "duplicate", "emp_no already exists")
+                    : result(i, id.get(0), e, "created", null);
+        });
+        return finish(results, "created");
+    }
+
+    /** Replaces every field of the employees with the given ids, like PUT /api/employee/{id}. */
+    public List<EmployeeBatchResult> update(List<Employee> items) {
+        checkSize(items);
+        EmployeeBatchResult[] results = new EmployeeBatchResult[items.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Employee e = items.get(i);
+            if (e == null || e.getId() == null)
+                results[i] = result(i, null, e, "invalid", "id is required");
+            else if (e.getEmpNo() == null || e.getEmpNo().isBlank())
+                results[i] = result(i, e.getId(), e, "invalid", "emp_no is required");
+            else
+                valid.add(i);
+        }
+        write(valid, results, i -> result(i, items.get(i).getId(), items.get(i), null, null), chunk -> {
+            // the whole chunk is one JDBC batch, so its counts are the first (only) row
+            int[] counts = jdbc.batchUpdate(UPDATE_SQL, chunk, chunk.size(),
+                    (ps, i) -> bindUpdate(ps, items.get(i)))[0];
+            for (int k = 0; k < chunk.size(); k++)
+                results[chunk.get(k)] = updated(chunk.get(k), items.get(chunk.get(k)), counts[k]);
+        }, i -> {
+            Employee e = items.get(i);
+            results[i] = updated(i, e, jdbc.update(UPDATE_SQL, ps -> bindUpdate(ps, e)));
+        });
+        return finish(results, "updated");
+    }
+
+    /** Deletes the employees with the given ids. */
+    public List<EmployeeBatchResult> delete(List<Long> ids) {
+        checkSize(ids);
+        EmployeeBatchResult[] results = new EmployeeBatchResult[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null)
+                results[i] = new EmployeeBatchResult(i, null, null, "invalid", "id is required");
+            else
+                valid.add(i);
+        }
+        write(valid, results, i -> new EmployeeBatchResult(i, ids.get(i), null, null, null), chunk -> {
+            int[] counts = jdbc.batchUpdate(DELETE_SQL, chunk, chunk.size(),
+                    (ps, i) -> ps.setLong(1, ids.get(i)))[0];
+            for (int k = 0; k < chunk.size(); k++)
+                results[chunk.get(k)] = deleted(chunk.get(k), ids.get(chunk.get(k)), counts[k]);
+        }, i -> results[i] = deleted(i, ids.get(i), jdbc.update(DELETE_SQL, ids.get(i))));
+        return finish(results, "deleted");
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty())
+            throw new IllegalArgumentException("at least one item is required");
+        if (items.size() > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("at most " + MAX_BATCH_SIZE + " items per request");
+    }
+
+    // item(i) identifies item i (id, emp_no) in a failure result
+    private void write(List<Integer> indexes, EmployeeBatchResult[] results, IntFunction<EmployeeBatchResult> item,
+            ChunkWrite chunkWrite, ItemWrite itemWrite) {
+        for (int from = 0; from < indexes.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + CHUNK_SIZE, indexes.size()));
+            try {
+                tx.executeWithoutResult(status -> chunkWrite.write(chunk));
+            } catch (DataAccessException ex) {
+                // the chunk was rolled back; redo it one item at a time and keep what succeeds
+                tx.executeWithoutResult(status -> {
+                    for (int i : chunk)
+                        writeItem(i, results, item, itemWrite);
+                });
+            }
+        }
+    }
+
+    // JpaTransactionManager does not offer savepoints, so they are issued on the shared JDBC connection
+    private void writeItem(int i, EmployeeBatchResult[] results, IntFunction<EmployeeBatchResult> item,
+            ItemWrite itemWrite) {
+        jdbc.execute("SAVEPOINT batch_item");
+        try {
+            itemWrite.write(i);
+            jdbc.execute("RELEASE SAVEPOINT batch_item");
+        } catch (DataAccessException ex) {
+            jdbc.execute("ROLLBACK TO SAVEPOINT batch_item");
+            EmployeeBatchResult r = item.apply(i);
+            String failure = ex instanceof DuplicateKeyException ? "conflict"
+                    : ex instanceof DataIntegrityViolationException ? "invalid" : "failed";
+            String message = ex.getMostSpecificCause().getMessage();
+            results[i] = new EmployeeBatchResult(i, r.id(), r.empNo(), failure, message);
+        }
+    }
+
+    private List<EmployeeBatchResult> finish(EmployeeBatchResult[] results, String changedStatus) {
+        List<EmployeeBatchResult> list = Arrays.asList(results);
+        List<Long> changed = list.stream().filter(r -> changedStatus.equals(r.status()))
+                .map(EmployeeBatchResult::id).toList();
+        if (!changed.isEmpty())
+            events.publishEvent(new DataChangeEvent(DataChangeEvent.EMPLOYEE, changed));
+        return list;
+    }
+
+    private static void bindUpdate(PreparedStatement ps, Employee e) throws SQLException {
+        ps.setString(1, e.getEmpNo());
+        ps.setString(2, e.getName());
+        ps.setString(3, e.getDeptCode());
+        ps.setObject(4, e.getLocationId(), Types.BIGINT);
+        ps.setString(5, e.getPosition());
+        ps.setBigDecimal(6, e.getSalary());
+        ps.setLong(7, e.getId());
+    }
+
+    private static EmployeeBatchResult updated(int i, Employee e, int count) {
+        return count > 0 ? result(i, e.getId(), e, "updated", null)
+                : result(i, e.getId(), e, "not_found", "no employee with id " + e.getId());
+    }
+
+    private static EmployeeBatchResult deleted(int i, Long id, int count) {
+        return count > 0 ? new EmployeeBatchResult(i, id, null, "deleted", null)
+                : new EmployeeBatchResult(i, id, null, "not_found", "no employee with id " + id);
+    }
+
+    private static EmployeeBatchResult result(int i, Long id, Employee e, String status, String message) {
+        return new EmployeeBatchResult(i, id, e != null ? e.getEmpNo() : null, status, message);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWrite {
+        void write(List<Integer> chunk);
+    }
+
+    @FunctionalInterface
+    private interface ItemWrite {
+        void write(int index);
+    }
+}
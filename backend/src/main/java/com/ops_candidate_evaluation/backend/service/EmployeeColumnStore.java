@@ -0,0 +1,168 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The in-memory {@link EmployeeColumns} behind {@code impl=memory} of q1, q2
+ * and q3. Built on first use, so it costs nothing until asked for, from one
+ * repeatable-read transaction. Employee, department and location writes, by
+ * the services or an import, mark it stale; it is rebuilt in the background
+ * once writes have been quiet for the debounce delay, and the previous copy is
+ * served until then, as with the q3 snapshot.
+ */
+@Service
+public class EmployeeColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeColumnStore.class);
+    private static final Set<String> SOURCES = Set.of(DataChangeEvent.EMPLOYEE, DataChangeEvent.DEPARTMENT,
+            DataChangeEvent.LOCATION);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate snapshotTx;
+    private final ApplicationEventPublisher events;
+    private final ReadRouting readRouting;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "employee-columns-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ReentrantLock building = new ReentrantLock();
+
+    // quiet period after the last write before the columns are rebuilt
+    @Value("${app.query.memory.refresh-delay-ms:1000}")
+    private long refreshDelayMs;
+
+    @Value("${app.query.fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile EmployeeColumns columns;
+    // set by the first request; until then writes need no rebuild
+    private volatile boolean used;
+    private volatile Instant refreshedAt;
+    // first write not yet covered by a build, null when the columns are current
+    private volatile Instant dirtySince;
+
+    public EmployeeColumnStore(DataSource dataSource, PlatformTransactionManager txManager,
+            ApplicationEventPublisher events, ReadRouting readRouting) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.snapshotTx = new TransactionTemplate(txManager);
+        this.snapshotTx.setReadOnly(true);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.events = events;
+        this.readRouting = readRouting;
+    }
+
+    @PostConstruct
+    void init() {
+        jdbc.setFetchSize(fetchSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public void q1(RowSink sink) {
+        columns().q1(sink);
+    }
+
+    public void q2(RowSink sink) {
+        columns().q2(sink);
+    }
+
+    public void q3(RowSink sink) {
+        columns().q3(sink);
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        if (!used || !SOURCES.contains(event.table()))
+            return;
+        if (dirtySince == null)
+            dirtySince = Instant.now();
+        schedule(refreshDelayMs);
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public Instant getDirtySince() {
+        return dirtySince;
+    }
+
+    // the first request builds in its own thread, and concurrent first requests wait for it
+    private EmployeeColumns columns() {
+        EmployeeColumns c = columns;
+        if (c != null)
+            return c;
+        building.lock();
+        try {
+            if (columns == null) {
+                used = true;
+                build();
+            }
+            return columns;
+        } finally {
+            building.unlock();
+        }
+    }
+
+    // at most one pending rebuild; writes during a rebuild schedule the next one
+    private void schedule(long delayMs) {
+        if (scheduled.compareAndSet(false, true))
+            refresher.schedule(this::refresh, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        scheduled.set(false);
+        Instant pending = dirtySince;
+        dirtySince = null;
+        building.lock();
+        try {
+            build();
+            // results read from the previous columns (the query cache) are out of date now
+            events.publishEvent(new DataChangeEvent(DataChangeEvent.EMPLOYEE_COLUMNS));
+        } catch (RuntimeException ex) {
+            log.warn("Employee columns rebuild failed: {}", ex.getMessage());
+            if (dirtySince == null || (pending != null && pending.isBefore(dirtySince)))
+                dirtySince = pending;
+            schedule(refreshDelayMs);
+        } finally {
+            building.unlock();
+        }
+    }
+
+    private void build() {
+        Instant started = Instant.now();
+        long t0 = System.nanoTime();
+        // a rebuild follows writes, which a replica may not have yet
+        EmployeeColumns built = readRouting.afterWrites(
+                () -> snapshotTx.execute(status -> EmployeeColumns.load(jdbc)));
+        columns = built;
+        refreshedAt = started;
+        log.info("Employee columns built: {} rows in {} ms", built.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+}
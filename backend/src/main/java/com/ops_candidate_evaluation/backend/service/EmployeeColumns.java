@@ -0,0 +1,367 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable, column-wise copy of employee with the department and location
+ * names it joins to, from which q1, q2 and q3 are answered without the
+ * database. Salaries are {@code long} cents; dept_code, location_id and
+ * position are {@code int} codes into small dictionaries. The work of the
+ * queries is done once when the copy is built: rows are kept in q1 order, q3
+ * order and ranks come from one sort each, and q2 is a single pass. The
+ * results are the same rows, values and types as the SQL versions.
+ * <p>
+ * Text is never compared in Java. Rows arrive sorted by the database and the
+ * location and department names are ranked by it, so every ordering follows
+ * the database collation exactly as the SQL does.
+ */
+final class EmployeeColumns {
+
+    private static final List<String> Q1_COLUMNS = List.of("dept_code", "emp_no", "emp_name", "cumulative_salary");
+    private static final List<String> Q2_COLUMNS = List.of("location_name", "dept_with_most_employees",
+            "dept_employee_count", "avg_salary_of_lowest_dept");
+    private static final List<String> Q3_COLUMNS = List.of("location_name", "department_name", "employee_name",
+            "position_name", "salary", "salary_rank", "salary_gap");
+
+    private static final String UNASSIGNED = "UNASSIGNED";
+    // NULL in a long column (salaries, gaps) and in a code column
+    private static final long NULL = Long.MIN_VALUE;
+    private static final int NONE = -1;
+
+    // the same fallbacks as the queries: COALESCE(loc.name, ...) and COALESCE(NULLIF(dep.name, ''), ...)
+    private static final String LABELS_SQL = ""
+            + "SELECT label FROM ( "
+            + "  SELECT 'UNASSIGNED'::varchar AS label "
+            + "  UNION SELECT COALESCE(name, 'UNASSIGNED') FROM location "
+            + "  UNION SELECT COALESCE(NULLIF(name, ''), 'UNASSIGNED') FROM department "
+            + ") labels ORDER BY label";
+    // q1 order, read from ix_employee_dept_emp_no
+    private static final String EMPLOYEES_SQL = ""
+            + "SELECT emp_no, name, dept_code, location_id, position, salary FROM employee ORDER BY dept_code, emp_no";
+
+    // per employee, in q1 order (dept_code, emp_no)
+    private final int size;
+    private final String[] empNo;
+    private final String[] name;
+    private final int[] dept;
+    private final int[] location;
+    private final int[] position;
+    private final long[] salary;
+
+    // dictionaries, and the names a dictionary entry joins to
+    private final String[] deptCodes;
+    private final String[] positions;
+    private final String[] deptNames;
+    private final String[] locationNames;
+
+    // q3: row order, and rank and gap to the next higher salary per row
+    private final int[] q3Order;
+    private final int[] q3Rank;
+    private final long[] q3Gap;
+
+    private final List<Object[]> q2Rows;
+
+    private EmployeeColumns(Loader rows, Map<String, Integer> labelRank, Map<Long, String> locationLabels,
+            Map<String, Integer> departmentRows, List<String> departmentLabels) {
+        size = rows.size;
+        empNo = Arrays.copyOf(rows.empNo, size);
+        name = Arrays.copyOf(rows.name, size);
+        dept = Arrays.copyOf(rows.dept, size);
+        location = Arrays.copyOf(rows.location, size);
+        position = Arrays.copyOf(rows.position, size);
+        salary = Arrays.copyOf(rows.salary, size);
+        deptCodes = rows.deptCodes.toArray(String[]::new);
+        positions = rows.positions.toArray(String[]::new);
+
+        // LEFT JOIN department / location, once per dictionary entry
+        int[] deptRow = new int[deptCodes.length];
+        deptNames = new String[deptCodes.length];
+        for (int d = 0; d < deptCodes.length; d++) {
+            deptRow[d] = departmentRows.getOrDefault(deptCodes[d], NONE);
+            deptNames[d] = deptRow[d] == NONE ? UNASSIGNED : departmentLabels.get(deptRow[d]);
+        }
+        locationNames = new String[rows.locationIds.size()];
+        for (int l = 0; l < locationNames.length; l++)
+            locationNames[l] = locationLabels.getOrDefault(rows.locationIds.get(l), UNASSIGNED);
+
+        q3Rank = new int[size];
+        q3Gap = new long[size];
+        rankSalaries();
+        q3Order = q3Order(labelRank);
+        q2Rows = q2(rows.locationIds, labelRank, locationLabels, deptRow, departmentLabels);
+    }
+
+    /** Reads the tables; run it in one transaction so the four reads agree. */
+    static EmployeeColumns load(JdbcTemplate jdbc) {
+        List<String> labels = jdbc.queryForList(LABELS_SQL, String.class);
+        Map<String, Integer> labelRank = new HashMap<>(labels.size() * 2);
+        for (int i = 0; i < labels.size(); i++)
+            labelRank.put(labels.get(i), i);
+        Map<Long, String> locationLabels = new HashMap<>();
+        jdbc.query("SELECT id, COALESCE(name, 'UNASSIGNED') FROM location",
+                (RowCallbackHandler) rs -> locationLabels.putIfAbsent(rs.getLong(1), rs.getString(2)));
+        // department.code is unique: an employee joins to at most one department row
+        Map<String, Integer> departmentRows = new HashMap<>();
+        List<String> departmentLabels = new ArrayList<>();
+        jdbc.query("SELECT code, COALESCE(NULLIF(name, ''), 'UNASSIGNED') FROM department WHERE code IS NOT NULL",
+                (RowCallbackHandler) rs -> {
+                    if (departmentRows.putIfAbsent(rs.getString(1), departmentLabels.size()) == null)
+                        departmentLabels.add(rs.getString(2));
+                });
+        Loader rows = new Loader();
+        jdbc.query(EMPLOYEES_SQL, rows);
+        return new EmployeeColumns(rows, labelRank, locationLabels, departmentRows, departmentLabels);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Query 1 - running sum per dept_code run; the rows already are in (dept_code, emp_no) order
+    void q1(RowSink sink) {
+        sink.columns(Q1_COLUMNS);
+        Object[] row = new Object[4];
+        long sum = 0;
+        boolean summed = false;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || dept[i] != dept[i - 1]) {
+                sum = 0;
+                summed = false;
+            }
+            if (salary[i] != NULL) {
+                sum += salary[i];
+                summed = true;
+            }
+            row[0] = dept[i] == NONE ? null : deptCodes[dept[i]];
+            row[1] = empNo[i];
+            row[2] = name[i];
+            // SUM of only NULL salaries is NULL, which the SQL versions COALESCE to 0
+            row[3] = summed ? BigDecimal.valueOf(sum, 2) : BigDecimal.ZERO;
+            sink.row(row);
+        }
+        sink.end();
+    }
+
+    // Query 2 - one row per location, computed when the copy was built
+    void q2(RowSink sink) {
+        sink.columns(Q2_COLUMNS);
+        for (Object[] row : q2Rows)
+            sink.row(row.clone());
+        sink.end();
+    }
+
+    // Query 3 - rows in the precomputed order with their precomputed rank and gap
+    void q3(RowSink sink) {
+        sink.columns(Q3_COLUMNS);
+        Object[] row = new Object[7];
+        for (int k = 0; k < size; k++) {
+            int i = q3Order[k];
+            row[0] = location[i] == NONE ? UNASSIGNED : locationNames[location[i]];
+            row[1] = dept[i] == NONE ? UNASSIGNED : deptNames[dept[i]];
+            row[2] = name[i];
+            row[3] = position[i] == NONE ? null : positions[position[i]];
+            row[4] = salary[i] == NULL ? null : BigDecimal.valueOf(salary[i], 2);
+            row[5] = (long) q3Rank[i];
+            // no higher salary, or not ranked at all: COALESCE(... , 0)
+            row[6] = q3Gap[i] == NULL ? BigDecimal.ZERO : BigDecimal.valueOf(q3Gap[i], 2);
+            sink.row(row);
+        }
+        sink.end();
+    }
+
+    // One sort by (location_id, dept_code, salary DESC) and one pass: the rank goes up by one at every new
+    // salary of a group, and the salary before it is the next higher one. Like the SQL, employees with a
+    // NULL location, department or salary are not ranked and get rank 1 and gap 0.
+    private void rankSalaries() {
+        Arrays.fill(q3Rank, 1);
+        Arrays.fill(q3Gap, NULL);
+        int[] ranked = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++)
+            if (location[i] != NONE && dept[i] != NONE && salary[i] != NULL)
+                ranked[n++] = i;
+        ranked = Arrays.copyOf(ranked, n);
+        IntSort.sort(ranked, (a, b) -> {
+            int c = Integer.compare(location[a], location[b]);
+            if (c == 0)
+                c = Integer.compare(dept[a], dept[b]);
+            return c != 0 ? c : Long.compare(salary[b], salary[a]);
+        });
+        int rank = 0;
+        long current = NULL, higher = NULL;
+        for (int k = 0; k < n; k++) {
+            int i = ranked[k];
+            if (k == 0 || location[i] != location[ranked[k - 1]] || dept[i] != dept[ranked[k - 1]]) {
+                rank = 1;
+                higher = NULL;
+                current = salary[i];
+            } else if (salary[i] != current) {
+                rank++;
+                higher = current;
+                current = salary[i];
+            }
+            q3Rank[i] = rank;
+            q3Gap[i] = higher == NULL ? NULL : higher - salary[i];
+        }
+    }
+
+    // ORDER BY location_name, department_name, e.salary DESC (NULLs first, as PostgreSQL sorts them descending)
+    private int[] q3Order(Map<String, Integer> labelRank) {
+        int unassigned = labelRank.get(UNASSIGNED);
+        int[] locationKey = new int[size];
+        int[] deptKey = new int[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            locationKey[i] = location[i] == NONE ? unassigned : labelRank.get(locationNames[location[i]]);
+            deptKey[i] = dept[i] == NONE ? unassigned : labelRank.get(deptNames[dept[i]]);
+            order[i] = i;
+        }
+        IntSort.sort(order, (a, b) -> {
+            int c = Integer.compare(locationKey[a], locationKey[b]);
+            if (c == 0)
+                c = Integer.compare(deptKey[a], deptKey[b]);
+            if (c != 0)
+                return c;
+            long sa = salary[a] == NULL ? Long.MAX_VALUE : salary[a];
+            long sb = salary[b] == NULL ? Long.MAX_VALUE : salary[b];
+            return Long.compare(sb, sa);
+        });
+        return order;
+    }
+
+    // dept_stats is one pass over the employees into (location, department row) groups; per location the
+    // largest group wins (ties to the first department name), and the lowest rounded average, NULL last.
+    // Every location row gets a row, also one without employees; employees of no existing location are dropped.
+    private List<Object[]> q2(List<Long> locationIds, Map<String, Integer> labelRank, Map<Long, String> locationLabels,
+            int[] deptRow, List<String> departmentLabels) {
+        List<Long> ids = new ArrayList<>(locationLabels.keySet());
+        Map<Long, Integer> locationRow = new HashMap<>(ids.size() * 2);
+        for (int r = 0; r < ids.size(); r++)
+            locationRow.put(ids.get(r), r);
+        int[] rowOf = new int[locationIds.size()];
+        for (int l = 0; l < rowOf.length; l++)
+            rowOf[l] = locationRow.getOrDefault(locationIds.get(l), NONE);
+
+        // count, salary sum, salaries counted, per location row * (department rows + 1)
+        int groups = departmentLabels.size() + 1;
+        Map<Long, long[]> stats = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int r = location[i] == NONE ? NONE : rowOf[location[i]];
+            if (r == NONE)
+                continue;
+            int g = dept[i] == NONE ? NONE : deptRow[dept[i]];
+            long[] s = stats.computeIfAbsent((long) r * groups + g + 1, k -> new long[3]);
+            s[0]++;
+            if (salary[i] != NULL) {
+                s[1] += salary[i];
+                s[2]++;
+            }
+        }
+
+        int unassigned = labelRank.get(UNASSIGNED);
+        long[] mostCount = new long[ids.size()];
+        int[] mostRank = new int[ids.size()];
+        String[] mostName = new String[ids.size()];
+        BigDecimal[] lowest = new BigDecimal[ids.size()];
+        for (Map.Entry<Long, long[]> e : stats.entrySet()) {
+            int r = (int) (e.getKey() / groups);
+            int g = (int) (e.getKey() % groups) - 1;
+            long[] s = e.getValue();
+            String deptName = g == NONE ? UNASSIGNED : departmentLabels.get(g);
+            int rank = g == NONE ? unassigned : labelRank.get(deptName);
+            if (s[0] > mostCount[r] || (s[0] == mostCount[r] && rank < mostRank[r])) {
+                mostCount[r] = s[0];
+                mostRank[r] = rank;
+                mostName[r] = deptName;
+            }
+            if (s[2] > 0) {
+                // ROUND(AVG(salary), 2) rounds half away from zero
+                BigDecimal avg = BigDecimal.valueOf(s[1], 2).divide(BigDecimal.valueOf(s[2]), 2, RoundingMode.HALF_UP);
+                if (lowest[r] == null || avg.compareTo(lowest[r]) < 0)
+                    lowest[r] = avg;
+            }
+        }
+
+        int[] order = new int[ids.size()];
+        int[] key = new int[ids.size()];
+        for (int r = 0; r < order.length; r++) {
+            order[r] = r;
+            key[r] = labelRank.get(locationLabels.get(ids.get(r)));
+        }
+        IntSort.sort(order, (a, b) -> Integer.compare(key[a], key[b]));
+        List<Object[]> result = new ArrayList<>(order.length);
+        for (int r : order) {
+            boolean employed = mostCount[r] > 0;
+            result.add(new Object[] { locationLabels.get(ids.get(r)), employed ? mostName[r] : UNASSIGNED,
+                    employed ? (Object) mostCount[r] : null, lowest[r] });
+        }
+        return result;
+    }
+
+    // Reads the employee rows into growing arrays and builds the dictionaries as codes are met.
+    private static final class Loader implements RowCallbackHandler {
+
+        int size;
+        String[] empNo = new String[1024];
+        String[] name = new String[1024];
+        int[] dept = new int[1024];
+        int[] location = new int[1024];
+        int[] position = new int[1024];
+        long[] salary = new long[1024];
+        final List<String> deptCodes = new ArrayList<>();
+        final List<Long> locationIds = new ArrayList<>();
+        final List<String> positions = new ArrayList<>();
+        private final Map<String, Integer> deptCode = new HashMap<>();
+        private final Map<Long, Integer> locationId = new HashMap<>();
+        private final Map<String, Integer> positionName = new HashMap<>();
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (size == empNo.length)
+                grow();
+            empNo[size] = rs.getString(1);
+            name[size] = rs.getString(2);
+            dept[size] = code(rs.getString(3), deptCode, deptCodes);
+            long locationValue = rs.getLong(4);
+            location[size] = rs.wasNull() ? NONE : code(locationValue, locationId, locationIds);
+            position[size] = code(rs.getString(5), positionName, positions);
+            BigDecimal salaryValue = rs.getBigDecimal(6);
+            // numeric(38,2): exact in cents; a salary too big for a long fails the build
+            salary[size] = salaryValue == null ? NULL : salaryValue.movePointRight(2).longValueExact();
+            size++;
+        }
+
+        private static <T> int code(T value, Map<T, Integer> codes, List<T> values) {
+            if (value == null)
+                return NONE;
+            Integer c = codes.get(value);
+            if (c == null) {
+                c = values.size();
+                codes.put(value, c);
+                values.add(value);
+            }
+            return c;
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            empNo = Arrays.copyOf(empNo, capacity);
+            name = Arrays.copyOf(name, capacity);
+            dept = Arrays.copyOf(dept, capacity);
+            location = Arrays.copyOf(location, capacity);
+            position = Arrays.copyOf(position, capacity);
+            salary = Arrays.copyOf(salary, capacity);
+        }
+    }
+}
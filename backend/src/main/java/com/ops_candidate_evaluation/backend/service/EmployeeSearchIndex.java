@@ -0,0 +1,295 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.model.EmployeeMatch;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Case-insensitive search over emp_no and name, from trigram posting lists.
+ * Every employee gets a slot; the text of both fields sits in one char array
+ * and each trigram of either field maps to the ascending int array of the
+ * slots containing it. Two more kinds of gram, led by a marker character,
+ * record the first one, two and three characters of a field and of every
+ * later word: one- and two-character queries are answered as prefixes, and a
+ * longer query looks for prefixes only among the fields or words that start
+ * with its first three characters.
+ * <p>
+ * A query intersects the lists of its grams, smallest first, and checks each
+ * candidate against the text, since trigrams in common do not make a
+ * substring. Prefix matches come first, then word starts, then other
+ * substrings; within each, slots in order, which is emp_no order as loaded.
+ * The lists are walked only until {@code limit} matches are found, so a
+ * common query costs no more than a rare one.
+ * <p>
+ * A change appends a new slot and leaves the old one as a dead entry, so
+ * slots stay sorted in every list; the owner rebuilds the index once dead
+ * slots pile up. Not thread-safe.
+ */
+final class EmployeeSearchIndex {
+
+    static final String PREFIX = "prefix";
+    static final String WORD = "word";
+    static final String SUBSTRING = "substring";
+
+    private static final String LOAD_SQL = "SELECT id, emp_no, name FROM employee ORDER BY emp_no";
+    // lead the grams of the first characters of a field and of a later word; control characters, not in names
+    private static final char FIELD_START = '\u0001';
+    private static final char WORD_START = '\u0002';
+    private static final int NONE = 3;
+
+    private long[] ids = new long[1024];
+    // slot s: emp_no in text[textStart[s], nameStart[s]), name up to textStart[s + 1]
+    private int[] textStart = new int[1025];
+    private int[] nameStart = new int[1024];
+    private char[] text = new char[16 * 1024];
+    private final BitSet dead = new BitSet();
+    private final BitSet noName = new BitSet();
+    private int slots;
+    private int deadSlots;
+
+    private final LongIntMap slotById = new LongIntMap(1024);
+    private final LongIntMap listByGram = new LongIntMap(1024);
+    private int[][] lists = new int[1024][];
+    private int[] listSizes = new int[1024];
+    private int listCount;
+
+    static EmployeeSearchIndex load(JdbcTemplate jdbc) {
+        EmployeeSearchIndex index = new EmployeeSearchIndex();
+        jdbc.query(LOAD_SQL, rs -> {
+            index.put(rs.getLong(1), rs.getString(2), rs.getString(3));
+        });
+        return index;
+    }
+
+    int size() {
+        return slots - deadSlots;
+    }
+
+    int deadSlots() {
+        return deadSlots;
+    }
+
+    int grams() {
+        return listCount;
+    }
+
+    /** Adds the employee, or replaces it if {@code id} is already indexed. */
+    void put(long id, String empNo, String name) {
+        remove(id);
+        int slot = slots++;
+        if (slot == ids.length) {
+            ids = Arrays.copyOf(ids, slot * 2);
+            nameStart = Arrays.copyOf(nameStart, slot * 2);
+            textStart = Arrays.copyOf(textStart, slot * 2 + 1);
+        }
+        ids[slot] = id;
+        int start = textStart[slot];
+        append(start, empNo);
+        int nameAt = start + empNo.length();
+        nameStart[slot] = nameAt;
+        if (name == null)
+            noName.set(slot);
+        else
+            append(nameAt, name);
+        int end = nameAt + (name != null ? name.length() : 0);
+        textStart[slot + 1] = end;
+        slotById.put(id, slot);
+        grams(slot, start, nameAt);
+        grams(slot, nameAt, end);
+    }
+
+    void remove(long id) {
+        int slot = slotById.remove(id);
+        if (slot != LongIntMap.ABSENT) {
+            dead.set(slot);
+            deadSlots++;
+        }
+    }
+
+    /** At most {@code limit} matches of {@code query}, which must not be empty, best first. */
+    List<EmployeeMatch> search(String query, int limit) {
+        char[] q = new char[query.length()];
+        for (int i = 0; i < q.length; i++)
+            q[i] = lower(query.charAt(i));
+        List<EmployeeMatch> matches = new ArrayList<>(Math.min(limit, 64));
+        collect(startGrams(FIELD_START, q), q, 0, matches, limit);
+        if (matches.size() < limit)
+            collect(startGrams(WORD_START, q), q, 1, matches, limit);
+        if (matches.size() < limit && q.length >= 3)
+            collect(windows(q), q, 2, matches, limit);
+        return matches;
+    }
+
+    private static long[] startGrams(char marker, char[] q) {
+        if (q.length == 1)
+            return new long[] { gram(marker, marker, q[0]) };
+        if (q.length == 2)
+            return new long[] { gram(marker, q[0], q[1]) };
+        // the anchored gram stands for the first trigram
+        long[] grams = windows(q);
+        grams[0] = gram(marker, q[0], q[1], q[2]);
+        return grams;
+    }
+
+    private static long[] windows(char[] q) {
+        long[] grams = new long[Math.max(0, q.length - 2)];
+        for (int i = 0; i + 2 < q.length; i++)
+            grams[i] = gram(q[i], q[i + 1], q[i + 2]);
+        return grams;
+    }
+
+    // adds the live slots on all lists of grams whose best match is of matchClass
+    private void collect(long[] grams, char[] q, int matchClass, List<EmployeeMatch> matches, int limit) {
+        int[] of = new int[grams.length];
+        for (int g = 0; g < grams.length; g++) {
+            of[g] = listByGram.get(grams[g]);
+            if (of[g] == LongIntMap.ABSENT)
+                return;
+        }
+        // the shortest list drives, the others are skipped through
+        int driver = 0;
+        for (int g = 1; g < of.length; g++)
+            if (listSizes[of[g]] < listSizes[of[driver]])
+                driver = g;
+        int[] list = lists[of[driver]];
+        int size = listSizes[of[driver]];
+        int[] at = new int[of.length];
+        candidates:
+        for (int i = 0; i < size; i++) {
+            int slot = list[i];
+            for (int g = 0; g < of.length; g++) {
+                if (g == driver)
+                    continue;
+                int other = of[g];
+                at[g] = seek(lists[other], listSizes[other], at[g], slot);
+                if (at[g] == listSizes[other])
+                    return;
+                if (lists[other][at[g]] != slot)
+                    continue candidates;
+            }
+            if (dead.get(slot) || matchClass(slot, q) != matchClass)
+                continue;
+            matches.add(match(slot, matchClass == 0 ? PREFIX : matchClass == 1 ? WORD : SUBSTRING));
+            if (matches.size() == limit)
+                return;
+        }
+    }
+
+    private EmployeeMatch match(int slot, String kind) {
+        int empNo = textStart[slot], name = nameStart[slot], end = textStart[slot + 1];
+        return new EmployeeMatch(ids[slot], new String(text, empNo, name - empNo),
+                noName.get(slot) ? null : new String(text, name, end - name), kind);
+    }
+
+    // 0 prefix, 1 word start, 2 substring, NONE when the grams matched but the text does not
+    private int matchClass(int slot, char[] q) {
+        int empNo = textStart[slot], name = nameStart[slot], end = textStart[slot + 1];
+        if (startsAt(empNo, name, q) || startsAt(name, end, q))
+            return 0;
+        for (int p = empNo + 1; p < name; p++)
+            if (wordStart(p) && startsAt(p, name, q))
+                return 1;
+        for (int p = name + 1; p < end; p++)
+            if (wordStart(p) && startsAt(p, end, q))
+                return 1;
+        for (int p = empNo + 1; p + q.length <= name; p++)
+            if (startsAt(p, name, q))
+                return 2;
+        for (int p = name + 1; p + q.length <= end; p++)
+            if (startsAt(p, end, q))
+                return 2;
+        return NONE;
+    }
+
+    private boolean startsAt(int p, int end, char[] q) {
+        if (end - p < q.length)
+            return false;
+        for (int i = 0; i < q.length; i++)
+            if (lower(text[p + i]) != q[i])
+                return false;
+        return true;
+    }
+
+    private boolean wordStart(int p) {
+        return Character.isLetterOrDigit(text[p]) && !Character.isLetterOrDigit(text[p - 1]);
+    }
+
+    // first index at or after from whose slot is >= target, galloping then binary search
+    private static int seek(int[] list, int size, int from, int target) {
+        int lo = from, hi = from, step = 1;
+        while (hi < size && list[hi] < target) {
+            lo = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, size);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list[mid] < target)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private void append(int at, String s) {
+        if (at + s.length() > text.length)
+            text = Arrays.copyOf(text, Math.max(text.length * 2, at + s.length()));
+        s.getChars(0, s.length(), text, at);
+    }
+
+    private void grams(int slot, int from, int to) {
+        for (int p = from; p < to; p++) {
+            char c = lower(text[p]);
+            char marker = p == from ? FIELD_START : wordStart(p) ? WORD_START : 0;
+            if (marker != 0) {
+                add(gram(marker, marker, c), slot);
+                if (p + 1 < to)
+                    add(gram(marker, c, lower(text[p + 1])), slot);
+                if (p + 2 < to)
+                    add(gram(marker, c, lower(text[p + 1]), lower(text[p + 2])), slot);
+            }
+            if (p + 2 < to)
+                add(gram(c, lower(text[p + 1]), lower(text[p + 2])), slot);
+        }
+    }
+
+    private void add(long gram, int slot) {
+        int list = listByGram.get(gram);
+        if (list == LongIntMap.ABSENT) {
+            list = listCount++;
+            if (list == lists.length) {
+                lists = Arrays.copyOf(lists, list * 2);
+                listSizes = Arrays.copyOf(listSizes, list * 2);
+            }
+            lists[list] = new int[4];
+            listByGram.put(gram, list);
+        }
+        int size = listSizes[list];
+        // slots come in ascending order, so a gram repeated within one employee is the last entry
+        if (size > 0 && lists[list][size - 1] == slot)
+            return;
+        if (size == lists[list].length)
+            lists[list] = Arrays.copyOf(lists[list], size * 2);
+        lists[list][size] = slot;
+        listSizes[list] = size + 1;
+    }
+
+    private static long gram(char a, char b, char c) {
+        return (long) a << 32 | (long) b << 16 | c;
+    }
+
+    // the marker in the top 16 bits keeps these apart from the three-character grams
+    private static long gram(char marker, char a, char b, char c) {
+        return (long) marker << 48 | gram(a, b, c);
+    }
+
+    private static char lower(char c) {
+        return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,210 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import com.ops_candidate_evaluation.backend.model.EmployeeMatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Employee search by emp_no and name from the in-memory
+ * {@link EmployeeSearchIndex}. Built on first use, like the employee columns.
+ * Writes through the services name their rows, which are read back by id and
+ * replaced in the index before the write returns, so a search sees its own
+ * writes. An import names no rows; the index is then rebuilt in the background
+ * once writes have been quiet for the debounce delay, and so it is when dead
+ * slots left by changes outnumber the live ones.
+ */
+@Service
+public class EmployeeSearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchService.class);
+    private static final String ROWS_SQL = "SELECT id, emp_no, name FROM employee WHERE id = ANY(?)";
+    // a rebuild for dead slots is not worth it below this many
+    private static final int MIN_DEAD_SLOTS = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final ReadRouting readRouting;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "employee-search-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // serializes reading changed rows and applying them, and the swap after a rebuild
+    private final ReentrantLock applying = new ReentrantLock();
+    // searches share the index, changes to it are exclusive
+    private final ReentrantReadWriteLock access = new ReentrantReadWriteLock();
+
+    @Value("${app.employee.search.refresh-delay-ms:1000}")
+    private long refreshDelayMs;
+
+    @Value("${app.query.fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile EmployeeSearchIndex index;
+    // set by the first search; until then writes need no work
+    private volatile boolean used;
+    // ids changed while a rebuild loads, applied to the new index before it is swapped in; guarded by applying
+    private Set<Long> changedDuringRebuild;
+
+    public EmployeeSearchService(DataSource dataSource, PlatformTransactionManager txManager,
+            ReadRouting readRouting) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readRouting = readRouting;
+    }
+
+    @PostConstruct
+    void init() {
+        jdbc.setFetchSize(fetchSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /** Employees whose emp_no or name contains {@code q}, ignoring case; prefix matches first. */
+    public List<EmployeeMatch> search(String q, int limit) {
+        if (q == null || q.isBlank())
+            throw new IllegalArgumentException("q is required");
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        EmployeeSearchIndex current = index();
+        access.readLock().lock();
+        try {
+            return current.search(q.trim(), limit);
+        } finally {
+            access.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        if (!used || !DataChangeEvent.EMPLOYEE.equals(event.table()))
+            return;
+        if (event.ids() == null) {
+            schedule(refreshDelayMs);
+            return;
+        }
+        applying.lock();
+        try {
+            if (changedDuringRebuild != null)
+                changedDuringRebuild.addAll(event.ids());
+            EmployeeSearchIndex current = index;
+            // null after a failed first build; the next search builds from scratch
+            if (current == null)
+                return;
+            apply(current, event.ids());
+            if (current.deadSlots() > Math.max(MIN_DEAD_SLOTS, current.size()))
+                schedule(0);
+        } catch (RuntimeException ex) {
+            // the write itself succeeded; a rebuild catches the index up
+            log.warn("Employee search index update failed: {}", ex.getMessage());
+            schedule(refreshDelayMs);
+        } finally {
+            applying.unlock();
+        }
+    }
+
+    // the first search builds in its own thread, and concurrent first searches wait for it
+    private EmployeeSearchIndex index() {
+        EmployeeSearchIndex i = index;
+        if (i != null)
+            return i;
+        applying.lock();
+        try {
+            if (index == null) {
+                used = true;
+                index = build();
+            }
+            return index;
+        } finally {
+            applying.unlock();
+        }
+    }
+
+    // the rows as they are now replace what the index has for these ids; rows that are gone are dropped
+    private void apply(EmployeeSearchIndex target, Collection<Long> ids) {
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        jdbc.query(ROWS_SQL, rs -> {
+            rows.add(new Object[] { rs.getLong(1), rs.getString(2), rs.getString(3) });
+        }, (Object) ids.toArray(new Long[0]));
+        access.writeLock().lock();
+        try {
+            for (Long id : ids)
+                target.remove(id);
+            for (Object[] row : rows)
+                target.put((Long) row[0], (String) row[1], (String) row[2]);
+        } finally {
+            access.writeLock().unlock();
+        }
+    }
+
+    // at most one pending rebuild; changes during a rebuild schedule the next one
+    private void schedule(long delayMs) {
+        if (scheduled.compareAndSet(false, true))
+            refresher.schedule(this::refresh, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        scheduled.set(false);
+        applying.lock();
+        changedDuringRebuild = new HashSet<>();
+        applying.unlock();
+        try {
+            EmployeeSearchIndex built = build();
+            applying.lock();
+            try {
+                if (!changedDuringRebuild.isEmpty())
+                    apply(built, changedDuringRebuild);
+                index = built;
+            } finally {
+                changedDuringRebuild = null;
+                applying.unlock();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Employee search index rebuild failed: {}", ex.getMessage());
+            applying.lock();
+            changedDuringRebuild = null;
+            applying.unlock();
+            schedule(refreshDelayMs);
+        }
+    }
+
+    private EmployeeSearchIndex build() {
+        long t0 = System.nanoTime();
+        // fetchSize streams the rows only inside a transaction; a rebuild follows writes a replica may lack
+        EmployeeSearchIndex built = readRouting.afterWrites(
+                () -> readOnlyTx.execute(status -> EmployeeSearchIndex.load(jdbc)));
+        log.info("Employee search index built: {} rows, {} grams in {} ms", built.size(), built.grams(),
+                (System.nanoTime() - t0) / 1_000_000);
+        return built;
+    }
+}
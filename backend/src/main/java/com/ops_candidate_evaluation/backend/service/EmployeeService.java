@@ -1,37 +1,121 @@
 package com.ops_candidate_evaluation.backend.service;
 
 import com.ops_candidate_evaluation.backend.model.Employee;
+import com.ops_candidate_evaluation.backend.model.EmployeePage;
+import com.ops_candidate_evaluation.backend.model.EmployeeSummary;
 import com.ops_candidate_evaluation.backend.repository.EmployeeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class EmployeeService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String CURSOR_PREFIX = "e:";
+    private static final RowMapper<EmployeeSummary> SUMMARY = new DataClassRowMapper<>(EmployeeSummary.class);
+
     private final EmployeeRepository repo;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbc;
 
-    public EmployeeService(EmployeeRepository repo) {
+    public EmployeeService(EmployeeRepository repo, ApplicationEventPublisher events, JdbcTemplate jdbc) {
         this.repo = repo;
+        this.events = events;
+        this.jdbc = jdbc;
     }
 
     public List<Employee> list() {
         return repo.findAll();
     }
 
+    /**
+     * Keyset page in emp_no order: the cursor carries the last emp_no served,
+     * so page N is one index range scan of {@code limit} rows, not an OFFSET.
+     * Only the filters that are set become predicates, which keeps each
+     * shape's plan on the matching index: the emp_no unique key, (dept_code,
+     * emp_no) or (location_id, emp_no). With both filters set, the index of
+     * one of them is scanned and the other is checked per row. Read-only,
+     * so a read replica may serve it.
+     */
+    @Transactional(readOnly = true)
+    public EmployeePage page(int limit, String cursor, String deptCode, Long locationId) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, emp_no, name, dept_code, location_id, position, salary FROM employee WHERE true");
+        List<Object> args = new ArrayList<>();
+        if (cursor != null && !cursor.isBlank()) {
+            sql.append(" AND emp_no > ?");
+            args.add(decodeCursor(cursor));
+        }
+        if (deptCode != null && !deptCode.isBlank()) {
+            sql.append(" AND dept_code = ?");
+            args.add(deptCode);
+        }
+        if (locationId != null) {
+            sql.append(" AND location_id = ?");
+            args.add(locationId);
+        }
+        // one extra row tells whether another page follows
+        sql.append(" ORDER BY emp_no LIMIT ?");
+        args.add(limit + 1);
+        List<EmployeeSummary> rows = jdbc.query(sql.toString(), SUMMARY, args.toArray());
+        if (rows.size() <= limit)
+            return new EmployeePage(rows, null);
+        List<EmployeeSummary> items = rows.subList(0, limit);
+        return new EmployeePage(items, encodeCursor(items.get(limit - 1).empNo()));
+    }
+
+    private static String encodeCursor(String empNo) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + empNo).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            raw = "";
+        }
+        // only the exact text encodeCursor gives: the decoder lets altered padding bits through
+        if (!raw.startsWith(CURSOR_PREFIX) || !encodeCursor(raw.substring(CURSOR_PREFIX.length())).equals(cursor))
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        return raw.substring(CURSOR_PREFIX.length());
+    }
+
     public Employee get(Long id) {
         return repo.findById(id).orElseThrow();
     }
 
     public Employee create(Employee e) {
-        return repo.save(e);
+        Employee saved = repo.save(e);
+        changed(saved.getId());
+        return saved;
     }
 
     public Employee update(Long id, Employee e) {
         e.setId(id);
-        return repo.save(e);
+        Employee saved = repo.save(e);
+        changed(saved.getId());
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        changed(id);
+    }
+
+    private void changed(Long id) {
+        events.publishEvent(new DataChangeEvent(DataChangeEvent.EMPLOYEE, List.of(id)));
     }
 }
@@ -0,0 +1,55 @@
+package com.ops_candidate_evaluation.backend.service;
+
+/**
+ * Sorts an {@code int[]} of row indexes by a comparator over the columns they
+ * point into, without boxing them into {@code Integer[]}. A stable merge sort,
+ * with insertion sort for short runs.
+ */
+final class IntSort {
+
+    private static final int INSERTION_MAX = 32;
+
+    @FunctionalInterface
+    interface Comparator {
+        int compare(int a, int b);
+    }
+
+    private IntSort() {
+    }
+
+    static void sort(int[] a, Comparator cmp) {
+        if (a.length < 2)
+            return;
+        sort(a, a.clone(), 0, a.length, cmp);
+    }
+
+    // sorts [from, to) into a; src holds the same values on entry and is used as scratch
+    private static void sort(int[] a, int[] src, int from, int to, Comparator cmp) {
+        if (to - from <= INSERTION_MAX) {
+            for (int i = from + 1; i < to; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= from && cmp.compare(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(src, a, from, mid, cmp);
+        sort(src, a, mid, to, cmp);
+        // both halves are sorted in src; merge them into a
+        if (cmp.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, a, from, to - from);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && cmp.compare(src[p], src[q]) <= 0))
+                a[i] = src[p++];
+            else
+                a[i] = src[q++];
+        }
+    }
+}
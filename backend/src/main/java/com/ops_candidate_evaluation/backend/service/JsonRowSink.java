@@ -0,0 +1,73 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Writes rows as a JSON array of objects, the same document a serialized
+ * {@code List<Map>} would give, without holding more than one row.
+ */
+public class JsonRowSink implements RowSink {
+
+    private final JsonGenerator json;
+    private List<String> names;
+
+    public JsonRowSink(JsonGenerator json) {
+        this.json = json;
+    }
+
+    @Override
+    public void columns(List<String> names) {
+        this.names = names;
+        try {
+            json.writeStartArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void row(Object[] values) {
+        try {
+            json.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                json.writeFieldName(names.get(i));
+                write(values[i]);
+            }
+            json.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // common column types directly; anything else through the generator's ObjectMapper,
+    // which is what formats the List<Map> response as well
+    private void write(Object v) throws IOException {
+        if (v == null)
+            json.writeNull();
+        else if (v instanceof String s)
+            json.writeString(s);
+        else if (v instanceof BigDecimal b)
+            json.writeNumber(b);
+        else if (v instanceof Long l)
+            json.writeNumber(l);
+        else if (v instanceof Integer n)
+            json.writeNumber(n);
+        else
+            json.writeObject(v);
+    }
+
+    @Override
+    public void end() {
+        try {
+            json.writeEndArray();
+            json.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in microseconds with log-linear buckets, the
+ * HdrHistogram layout: every power of two is split into 32 equal sub-buckets,
+ * so a reported percentile is within about 3% of the true value. Values up to
+ * 2^36 µs (about 19 hours) are tracked; larger ones land in the last bucket.
+ * {@link #record(long)} only does atomic increments and never allocates.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 36;
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_TRACKED = (1L << MAX_BITS) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.min(Math.max(0, micros), MAX_TRACKED);
+        counts.incrementAndGet(index(value));
+        sum.addAndGet(micros);
+        long seen = max.get();
+        while (micros > seen && !max.compareAndSet(seen, micros))
+            seen = max.get();
+    }
+
+    // values below 2 * SUB_BUCKETS map one to one; above that the top SUB_BUCKET_BITS + 1 bits pick the bucket
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // largest value that falls into bucket i, what HdrHistogram calls the highest equivalent value
+    static long upperBound(int i) {
+        if (i < 2 * SUB_BUCKETS)
+            return i;
+        int shift = i / SUB_BUCKETS - 1;
+        long mantissa = i % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /** Point-in-time copy; concurrent recordings may or may not be included. */
+    Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        return new Snapshot(copy, n, sum.get(), max.get());
+    }
+
+    record Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+
+        /** Upper bound of the bucket holding the q-th value, capped at the recorded maximum. */
+        long percentile(double q) {
+            if (count == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return Math.min(upperBound(i), maxMicros);
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -2,36 +2,56 @@ package com.ops_candidate_evaluation.backend.service;
 
 import com.ops_candidate_evaluation.backend.model.Location;
 import com.ops_candidate_evaluation.backend.repository.LocationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class LocationService {
     private final LocationRepository repo;
+    private final ReferenceCache<Location> cache;
+    private final ApplicationEventPublisher events;
 
-    public LocationService(LocationRepository repo) {
+    public LocationService(LocationRepository repo, ReferenceCaches caches, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.cache = caches.locations();
+        this.events = events;
     }
 
     public List<Location> list() {
-        return repo.findAll();
+        return cache.list(repo::findAll);
     }
 
     public Location get(Long id) {
-        return repo.findById(id).orElseThrow();
+        return cache.byId(id, repo::findById).orElseThrow();
+    }
+
+    public Optional<Location> findByCode(String code) {
+        return cache.byCode(code, repo::findByCode);
     }
 
     public Location create(Location l) {
-        return repo.save(l);
+        Location saved = repo.save(l);
+        changed();
+        return saved;
     }
 
     public Location update(Long id, Location l) {
         l.setId(id);
-        return repo.save(l);
+        Location saved = repo.save(l);
+        changed();
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        changed();
+    }
+
+    // also drops the cached locations
+    private void changed() {
+        events.publishEvent(new DataChangeEvent(DataChangeEvent.LOCATION));
     }
 }
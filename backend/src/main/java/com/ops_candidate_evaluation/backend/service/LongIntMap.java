@@ -0,0 +1,91 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to non-negative ints, without
+ * boxing: linear probing, removal by shifting the following entries back, so
+ * there are no tombstones. Not thread-safe.
+ */
+final class LongIntMap {
+
+    static final int ABSENT = -1;
+
+    private long[] keys;
+    // ABSENT marks a free bucket
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        for (int i = bucket(key);; i = (i + 1) & mask) {
+            if (values[i] == ABSENT || keys[i] == key)
+                return values[i];
+        }
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length)
+            grow();
+        int i = bucket(key);
+        while (values[i] != ABSENT && keys[i] != key)
+            i = (i + 1) & mask;
+        if (values[i] == ABSENT)
+            size++;
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /** Removes {@code key} and returns its value, or {@link #ABSENT}. */
+    int remove(long key) {
+        int i = bucket(key);
+        while (values[i] != ABSENT && keys[i] != key)
+            i = (i + 1) & mask;
+        int old = values[i];
+        if (old == ABSENT)
+            return ABSENT;
+        values[i] = ABSENT;
+        size--;
+        // move back each following entry whose home bucket does not lie between the gap and itself
+        int gap = i;
+        for (int j = (i + 1) & mask; values[j] != ABSENT; j = (j + 1) & mask) {
+            if (((j - bucket(keys[j])) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                values[j] = ABSENT;
+                gap = j;
+            }
+        }
+        return old;
+    }
+
+    private int bucket(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, ABSENT);
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldValues[i] != ABSENT)
+                put(oldKeys[i], oldValues[i]);
+    }
+}
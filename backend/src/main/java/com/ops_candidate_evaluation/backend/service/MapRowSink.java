@@ -0,0 +1,30 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Collects rows as {@code List<Map>}, the shape {@code JdbcTemplate.queryForList} returns. */
+public class MapRowSink implements RowSink {
+
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private List<String> names;
+
+    @Override
+    public void columns(List<String> names) {
+        this.names = names;
+    }
+
+    @Override
+    public void row(Object[] values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++)
+            row.put(names.get(i), values[i]);
+        rows.add(row);
+    }
+
+    public List<Map<String, Object>> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer. Each slot
+ * carries a sequence number: {@code pos} when free for the producer that
+ * claims position {@code pos}, {@code pos + 1} once filled. Producers claim
+ * positions with a CAS on the tail; {@link #poll()} must only ever be called
+ * from a single thread.
+ */
+final class MpscRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    // written by the consumer only
+    private volatile long head;
+
+    MpscRingBuffer(int minCapacity) {
+        capacity = Integer.highestOneBit(Math.max(2, minCapacity - 1)) << 1;
+        mask = capacity - 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            sequence.set(i, i);
+    }
+
+    /** Adds {@code item}, or returns false at once when the buffer is full. */
+    boolean offer(T item) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequence.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(i, item);
+                    sequence.set(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot still holds the item from one lap ago
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /** Next item, or null when nothing has been published yet. Single consumer only. */
+    T poll() {
+        long pos = head;
+        int i = (int) pos & mask;
+        if (sequence.get(i) != pos + 1)
+            return null;
+        T item = slots.get(i);
+        slots.set(i, null);
+        sequence.set(i, pos + capacity);
+        head = pos + 1;
+        return item;
+    }
+
+    /** Claimed positions not yet consumed; approximate while producers are active. */
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
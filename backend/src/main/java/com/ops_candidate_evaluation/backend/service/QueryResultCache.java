@@ -0,0 +1,152 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Serialized JSON of the report queries, keyed by query and implementation.
+ * Every entry is tagged with a global data version that any
+ * {@link DataChangeEvent} bumps; an entry of an older version is never served.
+ * The version is also the ETag, so a client whose copy is still current gets a
+ * 304 without the result being read at all.
+ */
+@Service
+public class QueryResultCache {
+
+    private final ObjectMapper objectMapper;
+    private final ReadRouting readRouting;
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    // tells ETags of an earlier run apart, whose versions started from 0 as well
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder tooLarge = new LongAdder();
+
+    public QueryResultCache(ObjectMapper objectMapper, ReadRouting readRouting,
+            @Value("${app.query.cache.enabled:true}") boolean enabled,
+            @Value("${app.query.cache.max-entry-bytes:67108864}") long maxEntryBytes) {
+        this.objectMapper = objectMapper;
+        this.readRouting = readRouting;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** ETag of the current data version. */
+    public String currentEtag() {
+        return etag(version.get());
+    }
+
+    /** True when {@code ifNoneMatch} names the current version; counted as a 304. */
+    public boolean notModified(String ifNoneMatch) {
+        if (ifNoneMatch == null || !matches(ifNoneMatch, currentEtag()))
+            return false;
+        notModified.increment();
+        return true;
+    }
+
+    /** The cached result of {@code key} at the current version, or null (counted as a miss). */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == version.get()) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Runs {@code query} into JSON bytes and caches them. Concurrent loads of
+     * the same key wait for the first one instead of running the query again.
+     */
+    public Entry load(String key, Consumer<RowSink> query) {
+        ReentrantLock lock = loading.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version() == version.get())
+                return entry;
+            // read before the query: if the data changes meanwhile the entry is already out of date
+            long v = version.get();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            try (JsonGenerator json = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+                // served as version v, so it must include the writes before v
+                readRouting.afterWrites(() -> {
+                    query.accept(new JsonRowSink(json));
+                    return null;
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            entry = new Entry(v, etag(v), out.toByteArray());
+            if (entry.json().length > maxEntryBytes)
+                tooLarge.increment();
+            else if (version.get() == v)
+                entries.put(key, entry);
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        version.incrementAndGet();
+        // none of them can be served any more; free the memory now rather than on the next load
+        entries.clear();
+    }
+
+    public Stats stats() {
+        long h = hits.sum(), nm = notModified.sum(), m = misses.sum();
+        long bytes = entries.values().stream().mapToLong(e -> e.json().length).sum();
+        return new Stats(enabled, version.get(), entries.size(), bytes, h, nm, m, tooLarge.sum(),
+                h + nm + m == 0 ? 0 : (double) (h + nm) / (h + nm + m));
+    }
+
+    private String etag(long v) {
+        return "\"" + epoch + "-" + v + "\"";
+    }
+
+    // If-None-Match may list several tags, or be *; weak tags compare equal to strong ones
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/"))
+                t = t.substring(2);
+            if (t.equals("*") || t.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    public record Entry(long version, String etag, byte[] json) {
+    }
+
+    public record Stats(boolean enabled, long version, int entries, long bytes, long hits, long notModified,
+            long misses, long tooLarge, double hitRatio) {
+    }
+}
@@ -0,0 +1,315 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.util.*;
+
+/**
+ * The report queries. Every result is read through a forward-only cursor
+ * ({@code fetchSize} inside a read-only transaction, so pgjdbc fetches in
+ * batches) and handed to a {@link RowSink} row by row; the {@code List<Map>}
+ * variants simply collect the rows. {@code impl=memory} answers from
+ * {@link EmployeeColumnStore} instead, without the database.
+ */
+@Service
+public class QueryService {
+
+    public static final List<String> Q1_IMPLS = List.of("lateral", "window", "stream", "memory");
+    public static final List<String> Q2_IMPLS = List.of("sql", "memory");
+    public static final List<String> Q3_IMPLS = List.of("snapshot", "live", "window", "memory");
+
+    private final JdbcTemplate cursorJdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final EmployeeColumnStore memory;
+
+    // lateral (original per-row re-sum, O(n^2) per department), window, stream or memory
+    @Value("${app.query.q1.impl:window}")
+    private String q1Impl;
+
+    // sql or memory
+    @Value("${app.query.q2.impl:sql}")
+    private String q2Impl;
+
+    // snapshot (q3_salary_rank materialized view), live (original self-join query), window or memory
+    @Value("${app.query.q3.impl:snapshot}")
+    private String q3Impl;
+
+    // rows per round-trip while a result is streamed
+    @Value("${app.query.fetch-size:1000}")
+    private int fetchSize;
+
+    public QueryService(DataSource dataSource, PlatformTransactionManager txManager, EmployeeColumnStore memory) {
+        this.cursorJdbc = new JdbcTemplate(dataSource);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.memory = memory;
+    }
+
+    @PostConstruct
+    void init() {
+        cursorJdbc.setFetchSize(fetchSize);
+    }
+
+    /** Validated, lower-cased q1 implementation; blank means app.query.q1.impl. */
+    public String q1Impl(String impl) {
+        return select(impl, q1Impl, Q1_IMPLS);
+    }
+
+    /** Validated, lower-cased q2 implementation; blank means app.query.q2.impl. */
+    public String q2Impl(String impl) {
+        return select(impl, q2Impl, Q2_IMPLS);
+    }
+
+    /** Validated, lower-cased q3 implementation; blank means app.query.q3.impl. */
+    public String q3Impl(String impl) {
+        return select(impl, q3Impl, Q3_IMPLS);
+    }
+
+    private static String select(String impl, String fallback, List<String> allowed) {
+        String selected = (impl == null || impl.isBlank() ? fallback : impl).toLowerCase(Locale.ROOT);
+        if (!allowed.contains(selected))
+            throw new IllegalArgumentException("Unknown implementation: " + selected);
+        return selected;
+    }
+
+    // Query 1 - cumulative salary per department in emp_no order
+    public List<Map<String, Object>> q1(String impl) {
+        MapRowSink rows = new MapRowSink();
+        q1(impl, rows);
+        return rows.getRows();
+    }
+
+    public void q1(String impl, RowSink sink) {
+        switch (q1Impl(impl)) {
+            case "lateral" -> q1Lateral(sink);
+            case "window" -> q1Window(sink);
+            case "memory" -> memory.q1(sink);
+            default -> q1Stream(sink);
+        }
+    }
+
+    private void q1Lateral(RowSink sink) {
+        String sql = ""
+                + "SELECT e.dept_code AS dept_code, e.emp_no AS emp_no, e.name AS emp_name, COALESCE(cum.cumulative_salary, 0) AS cumulative_salary "
+                + "FROM employee e "
+                + "LEFT JOIN LATERAL ( "
+                + "  SELECT SUM(b.salary) AS cumulative_salary "
+                + "  FROM employee b "
+                + "  WHERE (b.dept_code IS NOT DISTINCT FROM e.dept_code) "
+                + "    AND b.emp_no <= e.emp_no "
+                + ") cum ON true "
+                + "ORDER BY e.dept_code, e.emp_no";
+        query(sql, sink);
+    }
+
+    // one sort and one pass; PARTITION BY groups NULL departments together like IS NOT DISTINCT FROM,
+    // and emp_no is unique so the default RANGE frame ends at the current row
+    private void q1Window(RowSink sink) {
+        String sql = ""
+                + "SELECT e.dept_code AS dept_code, e.emp_no AS emp_no, e.name AS emp_name, "
+                + "       COALESCE(SUM(e.salary) OVER (PARTITION BY e.dept_code ORDER BY e.emp_no), 0) AS cumulative_salary "
+                + "FROM employee e "
+                + "ORDER BY e.dept_code, e.emp_no";
+        query(sql, sink);
+    }
+
+    // ordered cursor summed in Java; the sum restarts whenever dept_code changes (NULLs sort last, together)
+    private void q1Stream(RowSink sink) {
+        String sql = "SELECT dept_code, emp_no, name, salary FROM employee ORDER BY dept_code, emp_no";
+        sink.columns(List.of("dept_code", "emp_no", "emp_name", "cumulative_salary"));
+        readOnlyTx.executeWithoutResult(status -> {
+            Object[] row = new Object[4];
+            boolean[] first = { true };
+            BigDecimal[] sum = { null };
+            cursorJdbc.query(sql, rs -> {
+                String deptCode = rs.getString(1);
+                if (first[0] || !Objects.equals(row[0], deptCode)) {
+                    first[0] = false;
+                    sum[0] = null;
+                }
+                BigDecimal salary = rs.getBigDecimal(4);
+                if (salary != null)
+                    sum[0] = sum[0] == null ? salary : sum[0].add(salary);
+                row[0] = deptCode;
+                row[1] = rs.getString(2);
+                row[2] = rs.getString(3);
+                // SUM of only NULL salaries is NULL, which the SQL versions COALESCE to 0
+                row[3] = sum[0] != null ? sum[0] : BigDecimal.ZERO;
+                sink.row(row);
+            });
+        });
+        sink.end();
+    }
+
+    // Query 2 - department analysis by location (force UNASSIGNED fallback)
+    public List<Map<String, Object>> q2(String impl) {
+        MapRowSink rows = new MapRowSink();
+        q2(impl, rows);
+        return rows.getRows();
+    }
+
+    public void q2(String impl, RowSink sink) {
+        if ("memory".equals(q2Impl(impl)))
+            memory.q2(sink);
+        else
+            q2Sql(sink);
+    }
+
+    private void q2Sql(RowSink sink) {
+        String sql = ""
+                + "WITH dept_stats AS ( "
+                + "  SELECT e.location_id, l.name AS location_name, d.code AS dept_code, "
+                + "         COALESCE(NULLIF(d.name, ''), 'UNASSIGNED') AS dept_name, "
+                + "         COUNT(*) AS emp_count, ROUND(AVG(e.salary)::numeric,2) AS avg_salary "
+                + "  FROM employee e "
+                + "  LEFT JOIN department d ON d.code::text = e.dept_code::text "
+                + "  LEFT JOIN location l ON l.id = e.location_id "
+                + "  GROUP BY e.location_id, l.name, d.code, d.name "
+                + "), "
+                + "most AS ( "
+                + "  SELECT DISTINCT ON (location_id) location_id, dept_name AS dept_with_most_employees, emp_count AS dept_employee_count "
+                + "  FROM dept_stats "
+                + "  ORDER BY location_id, emp_count DESC, dept_name "
+                + "), "
+                + "lowest AS ( "
+                + "  SELECT DISTINCT ON (location_id) location_id, avg_salary AS avg_salary_of_lowest_dept "
+                + "  FROM dept_stats "
+                + "  ORDER BY location_id, avg_salary ASC "
+                + ") "
+                + "SELECT COALESCE(l.name, 'UNASSIGNED') AS location_name, "
+                + "       COALESCE(m.dept_with_most_employees, 'UNASSIGNED') AS dept_with_most_employees, "
+                + "       m.dept_employee_count, lo.avg_salary_of_lowest_dept "
+                + "FROM location l "
+                + "LEFT JOIN most m ON m.location_id = l.id "
+                + "LEFT JOIN lowest lo ON lo.location_id = l.id "
+                + "ORDER BY location_name";
+        query(sql, sink);
+    }
+
+    // Query 3 - salary ranking + gap
+    public List<Map<String, Object>> q3(String impl) {
+        MapRowSink rows = new MapRowSink();
+        q3(impl, rows);
+        return rows.getRows();
+    }
+
+    public void q3(String impl, RowSink sink) {
+        switch (q3Impl(impl)) {
+            case "live" -> q3Live(sink);
+            case "window" -> q3Window(sink);
+            case "memory" -> memory.q3(sink);
+            default -> q3Snapshot(sink);
+        }
+    }
+
+    private void q3Live(RowSink sink) {
+        String sql = ""
+                + "WITH distinct_salaries AS ( "
+                + "  SELECT location_id, dept_code, salary FROM employee GROUP BY location_id, dept_code, salary "
+                + "), "
+                + "salary_rank AS ( "
+                + "  SELECT ds.location_id, ds.dept_code, ds.salary, 1 + COUNT(h.salary) AS salary_rank "
+                + "  FROM distinct_salaries ds "
+                + "  LEFT JOIN distinct_salaries h "
+                + "    ON h.location_id = ds.location_id AND h.dept_code = ds.dept_code AND h.salary > ds.salary "
+                + "  GROUP BY ds.location_id, ds.dept_code, ds.salary "
+                + "), "
+                + "next_salary AS ( "
+                + "  SELECT ds.location_id, ds.dept_code, ds.salary, MIN(h.salary) AS next_higher_salary "
+                + "  FROM distinct_salaries ds "
+                + "  LEFT JOIN distinct_salaries h "
+                + "    ON h.location_id = ds.location_id AND h.dept_code = ds.dept_code AND h.salary > ds.salary "
+                + "  GROUP BY ds.location_id, ds.dept_code, ds.salary "
+                + ") "
+                + "SELECT COALESCE(loc.name, 'UNASSIGNED') AS location_name, "
+                + "       COALESCE(NULLIF(dep.name, ''), 'UNASSIGNED') AS department_name, "
+                + "       e.name AS employee_name, e.position AS position_name, e.salary AS salary, "
+                + "       COALESCE(sr.salary_rank, 1) AS salary_rank, "
+                + "       COALESCE(ns.next_higher_salary - e.salary, 0) AS salary_gap "
+                + "FROM employee e "
+                + "LEFT JOIN department dep ON dep.code::text = e.dept_code::text "
+                + "LEFT JOIN location loc ON loc.id = e.location_id "
+                + "LEFT JOIN salary_rank sr ON (sr.location_id IS NOT DISTINCT FROM e.location_id) AND (sr.dept_code IS NOT DISTINCT FROM e.dept_code) AND sr.salary = e.salary "
+                + "LEFT JOIN next_salary ns ON (ns.location_id IS NOT DISTINCT FROM e.location_id) AND (ns.dept_code IS NOT DISTINCT FROM e.dept_code) AND ns.salary = e.salary "
+                + "ORDER BY location_name, department_name, e.salary DESC";
+        query(sql, sink);
+    }
+
+    // One sort of the distinct salaries per (location_id, dept_code) instead of two self-joins that are quadratic
+    // in the distinct salaries of a group. Ordered by salary descending, DENSE_RANK is 1 + the number of higher
+    // salaries and the previous row (LAG) is the next higher one. Groups with a NULL location, department or
+    // salary are left out, as in the snapshot: the self-joins never match them, and COALESCE gives rank 1 / gap 0.
+    private void q3Window(RowSink sink) {
+        String sql = ""
+                + "WITH salary_rank AS ( "
+                + "  SELECT location_id, dept_code, salary, "
+                + "         DENSE_RANK() OVER w AS salary_rank, LAG(salary) OVER w AS next_higher_salary "
+                + "  FROM employee "
+                + "  WHERE location_id IS NOT NULL AND dept_code IS NOT NULL AND salary IS NOT NULL "
+                + "  GROUP BY location_id, dept_code, salary "
+                + "  WINDOW w AS (PARTITION BY location_id, dept_code ORDER BY salary DESC) "
+                + ") "
+                + "SELECT COALESCE(loc.name, 'UNASSIGNED') AS location_name, "
+                + "       COALESCE(NULLIF(dep.name, ''), 'UNASSIGNED') AS department_name, "
+                + "       e.name AS employee_name, e.position AS position_name, e.salary AS salary, "
+                + "       COALESCE(sr.salary_rank, 1) AS salary_rank, "
+                + "       COALESCE(sr.next_higher_salary - e.salary, 0) AS salary_gap "
+                + "FROM employee e "
+                + "LEFT JOIN department dep ON dep.code::text = e.dept_code::text "
+                + "LEFT JOIN location loc ON loc.id = e.location_id "
+                + "LEFT JOIN salary_rank sr ON sr.location_id = e.location_id AND sr.dept_code = e.dept_code AND sr.salary = e.salary "
+                + "ORDER BY location_name, department_name, e.salary DESC";
+        query(sql, sink);
+    }
+
+    // rank and next salary come precomputed per (location_id, dept_code, salary), one unique-index probe per employee
+    private void q3Snapshot(RowSink sink) {
+        String sql = ""
+                + "SELECT COALESCE(loc.name, 'UNASSIGNED') AS location_name, "
+                + "       COALESCE(NULLIF(dep.name, ''), 'UNASSIGNED') AS department_name, "
+                + "       e.name AS employee_name, e.position AS position_name, e.salary AS salary, "
+                + "       COALESCE(sr.salary_rank, 1) AS salary_rank, "
+                + "       COALESCE(sr.next_higher_salary - e.salary, 0) AS salary_gap "
+                + "FROM employee e "
+                + "LEFT JOIN department dep ON dep.code::text = e.dept_code::text "
+                + "LEFT JOIN location loc ON loc.id = e.location_id "
+                + "LEFT JOIN q3_salary_rank sr ON sr.location_id = e.location_id AND sr.dept_code = e.dept_code AND sr.salary = e.salary "
+                + "ORDER BY location_name, department_name, e.salary DESC";
+        query(sql, sink);
+    }
+
+    // The employee table in the column order the employee import reads (location as its id), for exports
+    public void employees(RowSink sink) {
+        query("SELECT emp_no, name, dept_code, location_id, position, salary FROM employee ORDER BY emp_no", sink);
+    }
+
+    // column labels and values are read the way queryForList (ColumnMapRowMapper) reads them
+    private void query(String sql, RowSink sink) {
+        readOnlyTx.executeWithoutResult(status -> cursorJdbc.query(sql, (ResultSetExtractor<Void>) rs -> {
+            ResultSetMetaData md = rs.getMetaData();
+            int n = md.getColumnCount();
+            List<String> names = new ArrayList<>(n);
+            for (int i = 1; i <= n; i++)
+                names.add(JdbcUtils.lookupColumnName(md, i));
+            sink.columns(names);
+            Object[] row = new Object[n];
+            while (rs.next()) {
+                for (int i = 0; i < n; i++)
+                    row[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+                sink.row(row);
+            }
+            return null;
+        }));
+        sink.end();
+    }
+}
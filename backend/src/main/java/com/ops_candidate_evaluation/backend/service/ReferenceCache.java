@@ -0,0 +1,139 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of one reference table: LRU maps by id and by code plus
+ * the complete list while it fits. Once the list is cached every lookup is
+ * answered from memory, including "not found". Cached entities are shared
+ * between requests and must be treated as read-only.
+ */
+public class ReferenceCache<T> {
+
+    private final String name;
+    private final int maxSize;
+    private final Function<T, Long> idOf;
+    private final Function<T, String> codeOf;
+    private final ReadRouting readRouting;
+    private final Map<Long, T> byId;
+    private final Map<String, T> byCode;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private List<T> all;
+    // bumped by invalidate(); a load that started before it must not be stored
+    private long generation;
+
+    public ReferenceCache(String name, int maxSize, Function<T, Long> idOf, Function<T, String> codeOf,
+            ReadRouting readRouting) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.idOf = idOf;
+        this.codeOf = codeOf;
+        this.readRouting = readRouting;
+        this.byId = lru(true);
+        this.byCode = lru(false);
+    }
+
+    public List<T> list(Supplier<List<T>> loader) {
+        long gen;
+        synchronized (this) {
+            if (all != null) {
+                hits.increment();
+                return all;
+            }
+            misses.increment();
+            gen = generation;
+        }
+        // kept until the next invalidate(), so not from a replica that may lack the write behind it
+        List<T> loaded = List.copyOf(readRouting.afterWrites(loader));
+        synchronized (this) {
+            if (gen == generation && loaded.size() <= maxSize) {
+                all = loaded;
+                for (T row : loaded)
+                    put(row);
+            }
+        }
+        return loaded;
+    }
+
+    public Optional<T> byId(Long id, Function<Long, Optional<T>> loader) {
+        return lookup(byId, id, loader);
+    }
+
+    public Optional<T> byCode(String code, Function<String, Optional<T>> loader) {
+        return lookup(byCode, code, loader);
+    }
+
+    private <K> Optional<T> lookup(Map<K, T> map, K key, Function<K, Optional<T>> loader) {
+        long gen;
+        synchronized (this) {
+            T cached = map.get(key);
+            if (cached != null || all != null) {
+                hits.increment();
+                return Optional.ofNullable(cached);
+            }
+            misses.increment();
+            gen = generation;
+        }
+        Optional<T> loaded = readRouting.afterWrites(() -> loader.apply(key));
+        synchronized (this) {
+            if (gen == generation)
+                loaded.ifPresent(this::put);
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        all = null;
+        byId.clear();
+        byCode.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, byId.size(), all != null, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void put(T row) {
+        Long id = idOf.apply(row);
+        String code = codeOf.apply(row);
+        if (id != null)
+            byId.put(id, row);
+        if (code != null)
+            byCode.put(code, row);
+    }
+
+    // every row sits in both maps, so only the id map counts evictions
+    private <K> Map<K, T> lru(boolean counted) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, T> eldest) {
+                if (size() <= maxSize)
+                    return false;
+                if (counted)
+                    evictions.increment();
+                // the complete list no longer matches what the maps can answer
+                all = null;
+                return true;
+            }
+        };
+    }
+
+    public record Stats(String name, int size, boolean complete, long hits, long misses, long evictions) {
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import com.ops_candidate_evaluation.backend.model.Department;
+import com.ops_candidate_evaluation.backend.model.Location;
+import com.ops_candidate_evaluation.backend.model.Tier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** The reference-table caches; each is dropped whenever its table changes (service write or import). */
+@Component
+public class ReferenceCaches {
+
+    private final ReferenceCache<Department> departments;
+    private final ReferenceCache<Location> locations;
+    private final ReferenceCache<Tier> tiers;
+
+    public ReferenceCaches(@Value("${app.cache.reference.max-size:10000}") int maxSize, ReadRouting readRouting) {
+        this.departments = new ReferenceCache<>(DataChangeEvent.DEPARTMENT, maxSize, Department::getId,
+                Department::getCode, readRouting);
+        this.locations = new ReferenceCache<>(DataChangeEvent.LOCATION, maxSize, Location::getId, Location::getCode,
+                readRouting);
+        this.tiers = new ReferenceCache<>(DataChangeEvent.TIER, maxSize, Tier::getId, Tier::getCode, readRouting);
+    }
+
+    public ReferenceCache<Department> departments() {
+        return departments;
+    }
+
+    public ReferenceCache<Location> locations() {
+        return locations;
+    }
+
+    public ReferenceCache<Tier> tiers() {
+        return tiers;
+    }
+
+    public List<ReferenceCache.Stats> stats() {
+        return List.of(departments.stats(), locations.stats(), tiers.stats());
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        switch (event.table()) {
+            case DataChangeEvent.DEPARTMENT -> departments.invalidate();
+            case DataChangeEvent.LOCATION -> locations.invalidate();
+            case DataChangeEvent.TIER -> tiers.invalidate();
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request latency and error counts per (route pattern, method), recorded by
+ * the API interceptor. After the first request of a route the recording path
+ * is two map lookups and a few atomic increments, with no allocation.
+ */
+@Service
+public class RequestMetrics {
+
+    private static final Set<String> METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    private final Map<String, Map<String, Series>> routes = new ConcurrentHashMap<>();
+    private final long startedNanos = System.nanoTime();
+
+    public void record(String route, String method, int status, long nanos) {
+        Series series = series(route, METHODS.contains(method) ? method : "OTHER");
+        series.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (status >= 500)
+            series.serverErrors.increment();
+        else if (status >= 400)
+            series.clientErrors.increment();
+    }
+
+    // get() first so the common case does not go through computeIfAbsent's locking
+    private Series series(String route, String method) {
+        Map<String, Series> byMethod = routes.get(route);
+        if (byMethod == null)
+            byMethod = routes.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        Series series = byMethod.get(method);
+        if (series == null)
+            series = byMethod.computeIfAbsent(method, m -> new Series());
+        return series;
+    }
+
+    /** One row per route and method, sorted; throughput is averaged since startup. */
+    public List<RouteMetrics> snapshot() {
+        double uptimeSeconds = Math.max(1e-9, (System.nanoTime() - startedNanos) / 1e9);
+        List<RouteMetrics> result = new ArrayList<>();
+        routes.forEach((route, byMethod) -> byMethod.forEach((method, series) -> {
+            LatencyHistogram.Snapshot h = series.latency.snapshot();
+            long n = h.count();
+            long clientErrors = series.clientErrors.sum();
+            long serverErrors = series.serverErrors.sum();
+            result.add(new RouteMetrics(route, method, n, n / uptimeSeconds, clientErrors, serverErrors,
+                    n == 0 ? 0 : (double) clientErrors / n, n == 0 ? 0 : (double) serverErrors / n,
+                    n == 0 ? 0 : ms(h.sumMicros()) / n, ms(h.percentile(0.5)), ms(h.percentile(0.9)),
+                    ms(h.percentile(0.99)), ms(h.maxMicros())));
+        }));
+        result.sort(Comparator.comparing(RouteMetrics::route).thenComparing(RouteMetrics::method));
+        return result;
+    }
+
+    /** The same numbers in the Prometheus text exposition format (version 0.0.4). */
+    public String prometheus() {
+        List<Labelled> all = new ArrayList<>();
+        routes.forEach((route, byMethod) -> byMethod.forEach((method, series) -> all.add(new Labelled(
+                "route=\"" + escape(route) + "\",method=\"" + escape(method) + "\"",
+                series.latency.snapshot(), series.clientErrors.sum(), series.serverErrors.sum()))));
+
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP api_request_duration_seconds Time from preHandle to afterCompletion of /api requests.\n");
+        out.append("# TYPE api_request_duration_seconds summary\n");
+        for (Labelled m : all) {
+            for (double q : QUANTILES)
+                sample(out, "api_request_duration_seconds", m.labels() + ",quantile=\"" + q + "\"",
+                        seconds(m.latency().percentile(q)));
+            sample(out, "api_request_duration_seconds_sum", m.labels(), seconds(m.latency().sumMicros()));
+            sample(out, "api_request_duration_seconds_count", m.labels(), m.latency().count());
+        }
+        out.append("# HELP api_request_duration_seconds_max Slowest /api request since startup.\n");
+        out.append("# TYPE api_request_duration_seconds_max gauge\n");
+        for (Labelled m : all)
+            sample(out, "api_request_duration_seconds_max", m.labels(), seconds(m.latency().maxMicros()));
+        out.append("# HELP api_request_errors_total /api requests answered with a 4xx or 5xx status.\n");
+        out.append("# TYPE api_request_errors_total counter\n");
+        for (Labelled m : all) {
+            sample(out, "api_request_errors_total", m.labels() + ",status_class=\"4xx\"", m.clientErrors());
+            sample(out, "api_request_errors_total", m.labels() + ",status_class=\"5xx\"", m.serverErrors());
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double seconds(long micros) {
+        return micros / 1_000_000.0;
+    }
+
+    private static final class Series {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+    }
+
+    private record Labelled(String labels, LatencyHistogram.Snapshot latency, long clientErrors,
+            long serverErrors) {
+    }
+
+    public record RouteMetrics(String route, String method, long count, double throughputPerSec,
+            long clientErrors, long serverErrors, double clientErrorRate, double serverErrorRate,
+            double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+}
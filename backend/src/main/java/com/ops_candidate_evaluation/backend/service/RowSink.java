@@ -0,0 +1,20 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import java.util.List;
+
+/**
+ * Receives a query result one row at a time, so a caller decides whether
+ * rows are collected, written to a response or serialized somewhere else.
+ */
+public interface RowSink {
+
+    /** Called once, before the first row, with the result column labels. */
+    void columns(List<String> names);
+
+    /** One row; {@code values} is reused by the producer and must not be kept. */
+    void row(Object[] values);
+
+    /** Called once after the last row. */
+    default void end() {
+    }
+}
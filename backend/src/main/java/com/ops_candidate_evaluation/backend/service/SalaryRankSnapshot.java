@@ -0,0 +1,106 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Materialized view {@code q3_salary_rank} with the q3 rank and next higher
+ * salary per (location_id, dept_code, salary), created by the migrations
+ * ({@code V3__q3_salary_rank.sql}, redefined with window functions in
+ * {@code V6__q3_salary_rank_window.sql}). Employee writes and imports
+ * mark it dirty; a refresh ({@code REFRESH ... CONCURRENTLY}, readers are not
+ * blocked) runs once writes have been quiet for the debounce delay.
+ */
+@Service
+public class SalaryRankSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(SalaryRankSnapshot.class);
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "q3-snapshot-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // quiet period after the last write before the view is refreshed
+    @Value("${app.query.q3.refresh-delay-ms:2000}")
+    private long refreshDelayMs;
+
+    private volatile Instant refreshedAt;
+    // first write not yet covered by a refresh, null when the view is current
+    private volatile Instant dirtySince;
+
+    public SalaryRankSnapshot(JdbcTemplate jdbc, ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.events = events;
+    }
+
+    @PostConstruct
+    void init() {
+        // the view may predate writes made while the application was down
+        dirtySince = Instant.now();
+        schedule(0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        if (!DataChangeEvent.EMPLOYEE.equals(event.table()))
+            return;
+        if (dirtySince == null)
+            dirtySince = Instant.now();
+        schedule(refreshDelayMs);
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public Instant getDirtySince() {
+        return dirtySince;
+    }
+
+    // at most one pending refresh; writes during a refresh schedule the next one
+    private void schedule(long delayMs) {
+        if (scheduled.compareAndSet(false, true))
+            refresher.schedule(this::refresh, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        scheduled.set(false);
+        Instant pending = dirtySince;
+        Instant started = Instant.now();
+        dirtySince = null;
+        try {
+            jdbc.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY q3_salary_rank");
+            refreshedAt = started;
+            // results read from the view (the q3 cache) are out of date now
+            events.publishEvent(new DataChangeEvent(DataChangeEvent.Q3_SALARY_RANK));
+        } catch (RuntimeException ex) {
+            log.warn("q3 snapshot refresh failed: {}", ex.getMessage());
+            if (dirtySince == null || (pending != null && pending.isBefore(dirtySince)))
+                dirtySince = pending;
+            schedule(refreshDelayMs);
+        }
+    }
+}
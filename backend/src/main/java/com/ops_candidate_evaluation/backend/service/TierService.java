@@ -2,36 +2,56 @@ package com.ops_candidate_evaluation.backend.service;
 
 import com.ops_candidate_evaluation.backend.model.Tier;
 import com.ops_candidate_evaluation.backend.repository.TierRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class TierService {
     private final TierRepository repo;
+    private final ReferenceCache<Tier> cache;
+    private final ApplicationEventPublisher events;
 
-    public TierService(TierRepository repo) {
+    public TierService(TierRepository repo, ReferenceCaches caches, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.cache = caches.tiers();
+        this.events = events;
     }
 
     public List<Tier> list() {
-        return repo.findAll();
+        return cache.list(repo::findAll);
     }
 
     public Tier get(Long id) {
-        return repo.findById(id).orElseThrow();
+        return cache.byId(id, repo::findById).orElseThrow();
+    }
+
+    public Optional<Tier> findByCode(String code) {
+        return cache.byCode(code, repo::findByCode);
     }
 
     public Tier create(Tier t) {
-        return repo.save(t);
+        Tier saved = repo.save(t);
+        changed();
+        return saved;
     }
 
     public Tier update(Long id, Tier t) {
         t.setId(id);
-        return repo.save(t);
+        Tier saved = repo.save(t);
+        changed();
+        return saved;
     }
 
     public void delete(Long id) {
         repo.deleteById(id);
+        changed();
+    }
+
+    // also drops the cached tiers
+    private void changed() {
+        events.publishEvent(new DataChangeEvent(DataChangeEvent.TIER));
     }
 }
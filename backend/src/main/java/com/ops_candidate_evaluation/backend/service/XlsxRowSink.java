@@ -0,0 +1,100 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Writes rows into an {@link SXSSFWorkbook}: only the last {@code window} rows
+ * stay in memory, older ones are flushed to a compressed temporary file, and
+ * strings are written inline instead of into a shared-strings table, so the
+ * heap does not grow with the row count. The workbook (a zip) can only be
+ * assembled once all rows are in, so {@link #end()} writes it to the stream
+ * and deletes the temporary file. A sheet that reaches the XLSX row limit is
+ * continued on the next one, under the same header.
+ */
+public class XlsxRowSink implements RowSink, AutoCloseable {
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream out;
+    private final String sheetName;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle decimal;
+    private List<String> names;
+    private SXSSFSheet sheet;
+    private int sheets;
+    private int rowNum;
+
+    public XlsxRowSink(OutputStream out, String sheetName, int window) {
+        this.out = out;
+        this.sheetName = sheetName;
+        this.workbook = new SXSSFWorkbook(null, window, true, false);
+        this.decimal = workbook.createCellStyle();
+        this.decimal.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+    }
+
+    @Override
+    public void columns(List<String> names) {
+        this.names = names;
+        newSheet();
+    }
+
+    @Override
+    public void row(Object[] values) {
+        if (rowNum == MAX_ROWS)
+            newSheet();
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < values.length; i++) {
+            Object v = values[i];
+            if (v == null)
+                continue;
+            Cell cell = row.createCell(i);
+            // numbers as numeric cells, so they sum and sort in a spreadsheet; salaries fit a double exactly enough
+            if (v instanceof BigDecimal b) {
+                cell.setCellValue(b.doubleValue());
+                cell.setCellStyle(decimal);
+            } else if (v instanceof Number n) {
+                cell.setCellValue(n.doubleValue());
+            } else {
+                cell.setCellValue(v.toString());
+            }
+        }
+    }
+
+    @Override
+    public void end() {
+        try {
+            workbook.write(out);
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            close();
+        }
+    }
+
+    /** Deletes the temporary file; also when the rows stopped coming because of an error. */
+    @Override
+    public void close() {
+        workbook.dispose();
+    }
+
+    private void newSheet() {
+        sheets++;
+        sheet = workbook.createSheet(sheets == 1 ? sheetName : sheetName + " (" + sheets + ")");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < names.size(); i++)
+            header.createCell(i).setCellValue(names.get(i));
+        rowNum = 1;
+    }
+}
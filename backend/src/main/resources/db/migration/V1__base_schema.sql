@@ -0,0 +1,57 @@
+-- Tables of the JPA entities and the importer. Shaped the way Hibernate's
+-- ddl-auto created them before the migrations took over (and the way
+-- ops-evaluation.sql has them), so spring.jpa.hibernate.ddl-auto=validate
+-- accepts both. Existing databases are baselined at version 0 and run this
+-- too, hence IF NOT EXISTS everywhere.
+
+CREATE TABLE IF NOT EXISTS location (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  code VARCHAR(255) CONSTRAINT uk_location_code UNIQUE,
+  name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS department (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  code VARCHAR(255) NOT NULL CONSTRAINT uk_department_code UNIQUE,
+  name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS tier (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  code VARCHAR(255) CONSTRAINT uk_tier_code UNIQUE,
+  name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS employee (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  emp_no VARCHAR(255) NOT NULL CONSTRAINT uk_employee_emp_no UNIQUE,
+  name VARCHAR(255),
+  dept_code VARCHAR(255),
+  location_id BIGINT,
+  position VARCHAR(255),
+  salary NUMERIC(38,2)
+);
+
+-- Import control: last committed row per (table, file) so an interrupted run can resume
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+  entity VARCHAR(32) NOT NULL,
+  file_fingerprint VARCHAR(64) NOT NULL,
+  file_name VARCHAR(1024),
+  last_row INTEGER NOT NULL,
+  rows_written BIGINT NOT NULL,
+  status VARCHAR(16) NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL,
+  PRIMARY KEY (entity, file_fingerprint)
+);
+
+-- Import rows that could not be mapped or were refused by the database
+CREATE TABLE IF NOT EXISTS import_reject (
+  id BIGSERIAL PRIMARY KEY,
+  entity VARCHAR(32) NOT NULL,
+  file_fingerprint VARCHAR(64) NOT NULL,
+  row_num INTEGER NOT NULL,
+  reason TEXT,
+  raw TEXT,
+  created_at TIMESTAMPTZ NOT NULL,
+  UNIQUE (entity, file_fingerprint, row_num)
+);
@@ -0,0 +1,73 @@
+-- API call history, range-partitioned by UTC day on timestamp. The application
+-- creates the daily partitions ahead of time and drops expired ones
+-- (app.audit.retention-days). Identity columns are not allowed on partitioned
+-- tables before PostgreSQL 17, so id draws from a sequence.
+
+-- Per-minute call counts by route pattern, written together with the history rows
+CREATE TABLE IF NOT EXISTS api_call_rollup (
+  minute TIMESTAMPTZ NOT NULL,
+  method VARCHAR(16) NOT NULL,
+  route VARCHAR(1024) NOT NULL,
+  status INTEGER NOT NULL,
+  calls BIGINT NOT NULL,
+  PRIMARY KEY (minute, method, route, status)
+);
+
+CREATE SEQUENCE IF NOT EXISTS api_call_history_seq;
+
+-- A plain api_call_history (ops-evaluation.sql, or Hibernate before this
+-- migration) is replaced by the partitioned table. Only rows within the
+-- retention are copied, and they are counted into the rollup first.
+DO $$
+DECLARE
+  kind "char" := (SELECT relkind FROM pg_class WHERE oid = to_regclass('api_call_history'));
+  today DATE := (now() AT TIME ZONE 'UTC')::date;
+  cutoff TIMESTAMPTZ := (today - ${audit_retention_days})::timestamp AT TIME ZONE 'UTC';
+  day DATE;
+  route TEXT;
+BEGIN
+  IF kind = 'p' THEN
+    RETURN;
+  END IF;
+  IF kind IS NOT NULL THEN
+    ALTER TABLE api_call_history RENAME TO api_call_history_legacy;
+  END IF;
+
+  CREATE TABLE api_call_history (
+    id BIGINT NOT NULL DEFAULT nextval('api_call_history_seq'),
+    timestamp TIMESTAMPTZ NOT NULL,
+    method VARCHAR(16),
+    path VARCHAR(1024),
+    route VARCHAR(1024),
+    status INTEGER,
+    user_identifier VARCHAR(255),
+    CONSTRAINT api_call_history_pk PRIMARY KEY (id, timestamp)
+  ) PARTITION BY RANGE (timestamp);
+  CREATE INDEX ix_api_call_history_timestamp ON api_call_history (timestamp);
+  ALTER SEQUENCE api_call_history_seq OWNED BY api_call_history.id;
+  IF kind IS NULL THEN
+    RETURN;
+  END IF;
+
+  day := (SELECT (min(timestamp) AT TIME ZONE 'UTC')::date FROM api_call_history_legacy WHERE timestamp >= cutoff);
+  WHILE day <= today LOOP
+    EXECUTE format('CREATE TABLE %I PARTITION OF api_call_history FOR VALUES FROM (%L) TO (%L)',
+        'api_call_history_p' || to_char(day, 'YYYYMMDD'),
+        day::timestamp AT TIME ZONE 'UTC', (day + 1)::timestamp AT TIME ZONE 'UTC');
+    day := day + 1;
+  END LOOP;
+
+  -- tables from before the route column get the path as their route, as in the rollup
+  route := CASE WHEN EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = current_schema()
+      AND table_name = 'api_call_history_legacy' AND column_name = 'route') THEN 'route' ELSE 'NULL' END;
+  EXECUTE format('INSERT INTO api_call_rollup (minute, method, route, status, calls) '
+      'SELECT date_trunc(''minute'', timestamp), COALESCE(method, ''''), COALESCE(%s, path, ''''), '
+      'COALESCE(status, 0), count(*) FROM api_call_history_legacy WHERE timestamp IS NOT NULL GROUP BY 1, 2, 3, 4 '
+      'ON CONFLICT (minute, method, route, status) DO NOTHING', route);
+  EXECUTE format('INSERT INTO api_call_history (id, timestamp, method, path, route, status, user_identifier) '
+      'SELECT id, timestamp, method, path, %s, status, user_identifier FROM api_call_history_legacy '
+      'WHERE timestamp >= $1 AND timestamp < $2', route)
+    USING cutoff, (today + 1)::timestamp AT TIME ZONE 'UTC';
+  PERFORM setval('api_call_history_seq', GREATEST((SELECT max(id) FROM api_call_history_legacy), 1));
+  DROP TABLE api_call_history_legacy;
+END $$;
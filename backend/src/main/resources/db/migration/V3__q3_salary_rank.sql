@@ -0,0 +1,20 @@
+-- q3 rank and next higher salary per (location_id, dept_code, salary),
+-- refreshed by the application (REFRESH ... CONCURRENTLY) after employee writes.
+-- Same definition as the live q3. Its self-joins use plain equality, so groups
+-- with a NULL location, department or salary never match and get rank 1 / gap 0;
+-- those rows are left out and the reader's COALESCE produces the same values.
+CREATE MATERIALIZED VIEW IF NOT EXISTS q3_salary_rank AS
+WITH distinct_salaries AS (
+  SELECT location_id, dept_code, salary FROM employee
+  WHERE location_id IS NOT NULL AND dept_code IS NOT NULL AND salary IS NOT NULL
+  GROUP BY location_id, dept_code, salary
+)
+SELECT ds.location_id, ds.dept_code, ds.salary, 1 + COUNT(h.salary) AS salary_rank,
+       MIN(h.salary) AS next_higher_salary
+FROM distinct_salaries ds
+LEFT JOIN distinct_salaries h
+  ON h.location_id = ds.location_id AND h.dept_code = ds.dept_code AND h.salary > ds.salary
+GROUP BY ds.location_id, ds.dept_code, ds.salary;
+
+-- REFRESH ... CONCURRENTLY needs a unique index over plain columns
+CREATE UNIQUE INDEX IF NOT EXISTS ux_q3_salary_rank ON q3_salary_rank (location_id, dept_code, salary);
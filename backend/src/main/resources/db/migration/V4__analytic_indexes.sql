@@ -0,0 +1,12 @@
+-- Indexes matched to the report queries. SchemaCheck refuses to start without them.
+--
+-- q1 (window and stream) reads employee in (dept_code, emp_no) order and sums
+-- salary: the index delivers that order, so the full-table sort goes away.
+-- salary is included for the lateral variant's per-row range sums.
+CREATE INDEX IF NOT EXISTS ix_employee_dept_emp_no ON employee (dept_code, emp_no) INCLUDE (salary);
+
+-- q3 groups and self-joins on (location_id, dept_code, salary), in the live
+-- query and in the q3_salary_rank refresh; this covers them with an index-only scan.
+CREATE INDEX IF NOT EXISTS ix_employee_location_dept_salary ON employee (location_id, dept_code, salary);
+
+-- api_call_history(timestamp) is ix_api_call_history_timestamp, created with the partitioned table in V2.
@@ -0,0 +1,5 @@
+-- Keyset pages of /api/employee filtered by location read employee in emp_no
+-- order from "emp_no > cursor" on; this index serves that as one range scan,
+-- so a deep page costs the same as the first. The department filter uses
+-- ix_employee_dept_emp_no from V4.
+CREATE INDEX IF NOT EXISTS ix_employee_location_emp_no ON employee (location_id, emp_no);
@@ -0,0 +1,19 @@
+-- q3_salary_rank from V3, with the same columns and rows, computed by one
+-- sort of the distinct salaries per (location_id, dept_code) instead of a
+-- self-join that is quadratic in them. Every debounced refresh after employee
+-- writes pays for the definition. Ordered by salary descending, DENSE_RANK is
+-- 1 + the number of higher salaries and LAG is the next higher one. Groups
+-- with a NULL location, department or salary are still left out.
+DROP MATERIALIZED VIEW IF EXISTS q3_salary_rank;
+
+CREATE MATERIALIZED VIEW q3_salary_rank AS
+SELECT location_id, dept_code, salary,
+       DENSE_RANK() OVER w AS salary_rank,
+       LAG(salary) OVER w AS next_higher_salary
+FROM employee
+WHERE location_id IS NOT NULL AND dept_code IS NOT NULL AND salary IS NOT NULL
+GROUP BY location_id, dept_code, salary
+WINDOW w AS (PARTITION BY location_id, dept_code ORDER BY salary DESC);
+
+-- REFRESH ... CONCURRENTLY needs a unique index over plain columns
+CREATE UNIQUE INDEX ux_q3_salary_rank ON q3_salary_rank (location_id, dept_code, salary);
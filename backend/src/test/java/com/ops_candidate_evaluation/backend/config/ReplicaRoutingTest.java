@@ -0,0 +1,203 @@
+package com.ops_candidate_evaluation.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing between a primary and one "replica" that are both the test
+ * database, opened under different application names so a query can tell
+ * which one served it. The replica can be switched off to stand in for an
+ * outage.
+ */
+@SpringBootTest
+class ReplicaRoutingTest {
+
+    // no health check during a test unless it asks for one
+    private static final long NO_CHECKS_MS = 3_600_000;
+
+    @Autowired
+    private DataSourceProperties properties;
+
+    private final ReadRouting reads = new ReadRouting();
+    private Switchable replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @AfterEach
+    void close() {
+        if (routing != null)
+            routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        start(NO_CHECKS_MS);
+
+        assertEquals("replica", servedBy(readOnly));
+        assertEquals("primary", servedBy(readWrite));
+        assertEquals("primary", jdbc.queryForObject("SELECT current_setting('application_name')", String.class));
+        assertEquals(1, routing.stats().replicas().get(0).reads());
+        assertEquals(0, routing.stats().primaryReads());
+    }
+
+    @Test
+    void pinnedReadsGoToThePrimary() {
+        start(NO_CHECKS_MS);
+
+        assertEquals("primary", reads.onPrimary(() -> servedBy(readOnly)));
+        assertEquals("replica", servedBy(readOnly));
+
+        // afterWrites stays on the primary for the guard window after any write
+        reads.setGuardMillis(300);
+        assertEquals("replica", reads.afterWrites(() -> servedBy(readOnly)));
+        reads.wrote();
+        assertEquals("primary", reads.afterWrites(() -> servedBy(readOnly)));
+        assertEquals(2, routing.stats().primaryReads(), "the onPrimary and afterWrites reads");
+        awaitTrue(() -> "replica".equals(reads.afterWrites(() -> servedBy(readOnly))), "guard window expires");
+    }
+
+    @Test
+    void clientThatWroteReadsFromThePrimary() {
+        start(NO_CHECKS_MS);
+        reads.setGuardMillis(60_000);
+        ReplicaLagGuard guard = new ReplicaLagGuard(reads);
+
+        request(guard, "POST", "u1", () -> null);
+
+        assertEquals("primary", request(guard, "GET", "u1", () -> servedBy(readOnly)));
+        assertEquals("replica", request(guard, "GET", "u2", () -> servedBy(readOnly)));
+        // a failed write does not pin
+        MockHttpServletRequest post = request("POST", "u3");
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(409);
+        guard.preHandle(post, failed, null);
+        guard.afterCompletion(post, failed, null, null);
+        assertEquals("replica", request(guard, "GET", "u3", () -> servedBy(readOnly)));
+        // the pin ends with the request
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void readsFailOverWhenTheReplicaGoesDown() {
+        start(NO_CHECKS_MS);
+        replica.down = true;
+
+        assertEquals("primary", servedBy(readOnly));
+        ReplicaRoutingDataSource.ReplicaStats stats = routing.stats().replicas().get(0);
+        assertFalse(stats.healthy());
+        assertEquals(1, stats.failures());
+        assertEquals(1, routing.stats().primaryReads());
+
+        // taken out: the next read does not try it again
+        assertEquals("primary", servedBy(readOnly));
+        assertEquals(1, routing.stats().replicas().get(0).failures());
+    }
+
+    @Test
+    void healthCheckTakesTheReplicaOutAndBackIn() {
+        start(50);
+
+        replica.down = true;
+        awaitTrue(() -> !routing.stats().replicas().get(0).healthy(), "check finds the replica down");
+        assertEquals("primary", servedBy(readOnly));
+        assertEquals(0, routing.stats().replicas().get(0).failures());
+
+        replica.down = false;
+        awaitTrue(() -> routing.stats().replicas().get(0).healthy(), "check finds the replica back");
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    private void start(long checkIntervalMs) {
+        replica = new Switchable(dataSource("replica"));
+        routing = new ReplicaRoutingDataSource(dataSource("primary"), Map.of("replica-1", replica), reads, 5000,
+                checkIntervalMs);
+        awaitTrue(() -> routing.stats().replicas().get(0).healthy(), "first check");
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(lazy);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(lazy);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(txManager);
+    }
+
+    private String servedBy(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("SELECT current_setting('application_name')", String.class));
+    }
+
+    private DataSource dataSource(String name) {
+        String url = properties.determineUrl();
+        return new DriverManagerDataSource(url + (url.contains("?") ? "&" : "?") + "ApplicationName=" + name,
+                properties.determineUsername(), properties.determinePassword());
+    }
+
+    private static <T> T request(ReplicaLagGuard guard, String method, String user, Supplier<T> work) {
+        MockHttpServletRequest request = request(method, user);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        guard.preHandle(request, response, null);
+        try {
+            return work.get();
+        } finally {
+            guard.afterCompletion(request, response, null, null);
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/employee");
+        request.addHeader("X-User-Id", user);
+        return request;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for: " + what);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    // refuses connections while down, like a replica that is unreachable
+    private static final class Switchable extends DelegatingDataSource {
+
+        volatile boolean down;
+
+        Switchable(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down)
+                throw new SQLException("replica is down");
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import com.ops_candidate_evaluation.backend.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Delta imports into temporary copies of employee and the import control
+ * tables, on a connection of its own. A row's xmin changes with every write
+ * to it, even one that stores the same values, so comparing xmin before and
+ * after tells which rows were written.
+ */
+@SpringBootTest
+class DeltaWriterTest {
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private ImportCheckpoints checkpoints;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                dataSource.determinePassword());
+        try (Statement st = connection.createStatement()) {
+            for (String table : List.of("employee", "import_checkpoint", "import_reject"))
+                st.execute("CREATE TEMP TABLE " + table + " (LIKE public." + table + " INCLUDING ALL)");
+        }
+        SingleConnectionDataSource single = new SingleConnectionDataSource(connection, true);
+        jdbc = new JdbcTemplate(single);
+        checkpoints = new ImportCheckpoints(jdbc, new TransactionTemplate(new DataSourceTransactionManager(single)));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void unchangedRowsAreNotWritten() {
+        DeltaWriter<Employee> first = writer(false);
+        first.write(List.of(employee("E1", "Ann", "100.00"), employee("E2", "Bob", "200.50"),
+                employee("E3", "Cy", null)));
+        assertEquals("inserted=3 updated=0 unchanged=0 deleted=0 skipped=0", first.summary());
+        Map<String, String> before = versions();
+
+        // the sheet gives 100 where the table has 100.00: same value, no write
+        DeltaWriter<Employee> second = writer(false);
+        second.write(List.of(employee("E1", "Ann", "100"), employee("E2", "Bob", "200.5")));
+        second.write(List.of(employee("E3", "Cy", null), employee(null, "no key", "1")));
+        second.finish();
+
+        assertEquals("inserted=0 updated=0 unchanged=3 deleted=0 skipped=1", second.summary());
+        assertEquals(before, versions());
+    }
+
+    @Test
+    void changedRowsAreUpserted() {
+        writer(false).write(List.of(employee("E1", "Ann", "100"), employee("E2", "Bob", "200"),
+                employee("E3", "Cy", "300")));
+        Map<String, String> before = versions();
+        long e2 = idOf("E2");
+
+        DeltaWriter<Employee> writer = writer(false);
+        // within a chunk the last row of a key wins
+        writer.write(List.of(employee("E1", "Ann", "100"), employee("E2", "Bobby", "200"),
+                employee("E3", "Cy", "300"), employee("E3", "Cy", "350"), employee("E4", "Di", "400")));
+
+        assertEquals("inserted=1 updated=2 unchanged=1 deleted=0 skipped=0", writer.summary());
+        Map<String, String> after = versions();
+        assertEquals(before.get("E1"), after.get("E1"));
+        assertNotEquals(before.get("E2"), after.get("E2"));
+        assertNotEquals(before.get("E3"), after.get("E3"));
+        assertEquals(4, after.size());
+        // updated in place, not deleted and inserted again
+        assertEquals(e2, idOf("E2"));
+        assertEquals("Bobby", jdbc.queryForObject("SELECT name FROM employee WHERE emp_no = 'E2'", String.class));
+        assertEquals(0, new BigDecimal("350").compareTo(jdbc.queryForObject(
+                "SELECT salary FROM employee WHERE emp_no = 'E3'", BigDecimal.class)));
+    }
+
+    @Test
+    void missingKeysAreDeletedOnlyOnceTheSheetIsComplete() {
+        jdbc.update("INSERT INTO employee (emp_no, name, dept_code, position) "
+                + "SELECT 'K' || lpad(g::text, 6, '0'), 'stored', 'D1', 'Staff' "
+                + "FROM generate_series(1, 25000) g");
+
+        // the pipeline calls finish() only after the whole sheet was read; a run that stops early never does
+        DeltaWriter<Employee> stopped = writer(true);
+        stopped.write(List.of(employee("K000001", "stored", null)));
+        assertEquals(25000, count());
+
+        // off (the default): finish() keeps every stored row
+        DeltaWriter<Employee> kept = writer(false);
+        kept.write(List.of(employee("K000001", "stored", null)));
+        kept.finish();
+        assertEquals(25000, count());
+
+        // on: keys neither written nor resumed past are deleted, across several scan pages
+        DeltaWriter<Employee> writer = writer(true);
+        writer.write(List.of(employee("K000001", "stored", null), employee("K012345", "stored", null)));
+        writer.resumedPast(employee("K024999", "stored", null));
+        writer.finish();
+
+        assertEquals("inserted=0 updated=0 unchanged=2 deleted=24997 skipped=0", writer.summary());
+        assertEquals(List.of("K000001", "K012345", "K024999"),
+                jdbc.queryForList("SELECT emp_no FROM employee ORDER BY emp_no", String.class));
+    }
+
+    @Test
+    void rejectedRowIsNotDeleted() {
+        writer(false).write(List.of(employee("E1", "Ann", "100"), employee("E2", "Bob", "200"),
+                employee("E3", "Cy", "300")));
+        DeltaWriter<Employee> writer = writer(true);
+        SheetCheckpoint cp = new SheetCheckpoint(checkpoints, "employee", "test", 0, false);
+        ImportReport.Stage stage = new ImportReport().stage("employee.write");
+        ChunkWriter<Employee> out = new ChunkWriter<>(writer, 10, stage, cp, e -> e.getEmpNo());
+
+        // the database refuses E2's new name, so the chunk is retried row by row and E2 is rejected
+        out.add(2, employee("E1", "Ann", "101"));
+        out.add(3, employee("E2", "B".repeat(300), "200"));
+        out.flush();
+        writer.finish();
+
+        assertEquals(1, stage.getWritten());
+        assertEquals(1, stage.getRejected());
+        assertEquals(List.of(3), jdbc.queryForList("SELECT row_num FROM import_reject", Integer.class));
+        // E3 is missing from the sheet; E2 is in it, only refused, and keeps its stored row
+        assertEquals(List.of("E1", "E2"), jdbc.queryForList("SELECT emp_no FROM employee ORDER BY emp_no",
+                String.class));
+        assertEquals("Bob", jdbc.queryForObject("SELECT name FROM employee WHERE emp_no = 'E2'", String.class));
+    }
+
+    private DeltaWriter<Employee> writer(boolean deleteMissing) {
+        return new DeltaWriter<>(jdbc, BulkTable.EMPLOYEE, deleteMissing);
+    }
+
+    private Map<String, String> versions() {
+        return jdbc.queryForList("SELECT emp_no, xmin::text AS version FROM employee").stream()
+                .collect(Collectors.toMap(r -> (String) r.get("emp_no"), r -> (String) r.get("version")));
+    }
+
+    private long idOf(String empNo) {
+        return jdbc.queryForObject("SELECT id FROM employee WHERE emp_no = ?", Long.class, empNo);
+    }
+
+    private int count() {
+        return jdbc.queryForObject("SELECT count(*) FROM employee", Integer.class);
+    }
+
+    private static Employee employee(String empNo, String name, String salary) {
+        Employee e = new Employee();
+        e.setEmpNo(empNo);
+        e.setName(name);
+        e.setDeptCode("D1");
+        e.setPosition("Staff");
+        e.setSalary(salary != null ? new BigDecimal(salary) : null);
+        return e;
+    }
+}
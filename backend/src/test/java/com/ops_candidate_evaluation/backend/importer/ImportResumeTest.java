@@ -0,0 +1,183 @@
+package com.ops_candidate_evaluation.backend.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * An employee upload that dies part-way and is run again, against the real
+ * tables. The first run reads the file through a reader that fails at a
+ * given row, like a worker killed mid-import; the bad row (no emp_no) comes
+ * before that point, in a chunk the first run does not get to commit in full.
+ * Employees carry an emp_no prefix of the test's own and are deleted
+ * afterwards, together with the checkpoints and rejects of the test's files.
+ */
+@SpringBootTest
+class ImportResumeTest {
+
+    private static final int CHUNK_SIZE = 10;
+    private static final int LAST_ROW = 41; // header is row 1, so 40 employees
+    private static final int BAD_ROW = 15;
+    private static final int FAIL_AT = 28;
+
+    @Autowired
+    private ImportPipeline pipeline;
+
+    @Autowired
+    private ImportCheckpoints checkpoints;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TempDir
+    private Path dir;
+
+    private final String prefix = "TIMPORT-" + System.nanoTime() + "-";
+    private final List<String> fingerprints = new ArrayList<>();
+    private Object chunkSize;
+
+    @BeforeEach
+    void smallChunks() {
+        chunkSize = ReflectionTestUtils.getField(pipeline, "chunkSize");
+        ReflectionTestUtils.setField(pipeline, "chunkSize", CHUNK_SIZE);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(pipeline, "chunkSize", chunkSize);
+        jdbc.update("DELETE FROM employee WHERE emp_no LIKE ?", prefix + "%");
+        for (String fingerprint : fingerprints) {
+            jdbc.update("DELETE FROM import_checkpoint WHERE file_fingerprint = ?", fingerprint);
+            jdbc.update("DELETE FROM import_reject WHERE file_fingerprint = ?", fingerprint);
+        }
+    }
+
+    @Test
+    void rerunResumesAfterTheLastCommittedRow() throws IOException {
+        Path file = write("employees.csv", 0);
+
+        ImportReport failed = run(file, failingAt(FAIL_AT));
+
+        // chunks of rows 2-11 and 12-22 (less the bad row), then what the writer held when the parse stopped
+        assertNotNull(stage(failed, "employee.parse").getError());
+        assertEquals(List.of(FAIL_AT - 1, 25L, ImportCheckpoints.RUNNING), checkpoint(file));
+        assertEquals(25, employees());
+        assertEquals(List.of(BAD_ROW), rejects(file));
+
+        ImportReport resumed = run(file, new CsvSheetReader());
+
+        ImportReport.Stage write = stage(resumed, "employee.write");
+        assertNull(stage(resumed, "employee.parse").getError());
+        assertEquals("resumed after row " + (FAIL_AT - 1), write.getDetail());
+        assertEquals(LAST_ROW - FAIL_AT + 1, write.getWritten());
+        assertEquals(0, write.getRejected());
+        assertEquals(List.of(LAST_ROW, 39L, ImportCheckpoints.COMPLETE), checkpoint(file));
+        assertEquals(39, employees());
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM employee WHERE emp_no = ?", Integer.class,
+                prefix + (FAIL_AT - 1)));
+        assertEquals(List.of(BAD_ROW), rejects(file));
+
+        // complete: a third run reads nothing
+        ImportReport again = run(file, failingAt(2));
+        assertEquals("already imported", stage(again, "employee.parse").getDetail());
+        assertEquals(0, again.getRowsWritten());
+        assertEquals(39, employees());
+    }
+
+    @Test
+    void badRowAfterTheCheckpointIsRejectedOnceAcrossRuns() throws IOException {
+        Path file = write("employees.csv", 0);
+
+        // fails right after the bad row, whose chunk is then flushed: the checkpoint stops before it
+        run(file, failingAt(BAD_ROW + 1));
+        assertEquals(List.of(BAD_ROW), rejects(file));
+        run(file, failingAt(FAIL_AT));
+        run(file, new CsvSheetReader());
+
+        assertEquals(List.of(LAST_ROW, 39L, ImportCheckpoints.COMPLETE), checkpoint(file));
+        assertEquals(39, employees());
+        assertEquals(List.of(BAD_ROW), rejects(file));
+    }
+
+    @Test
+    void editedFileStartsOver() throws IOException {
+        Path file = write("employees.csv", 0);
+        run(file, failingAt(FAIL_AT));
+        assertEquals(FAIL_AT - 1, checkpoint(file).get(0));
+
+        // same name, different content: a new fingerprint, so nothing of the first run applies
+        Path edited = write("employees.csv", 1);
+        SheetCheckpoint cp = checkpoints.open(ImportEntity.EMPLOYEE, edited, true, false);
+        assertEquals(0, cp.getResumeAfter());
+        assertFalse(cp.isAlreadyComplete());
+        assertEquals(List.of(0, 0L, ImportCheckpoints.RUNNING), checkpoint(edited));
+
+        // the unfinished run of the original content can still be resumed
+        Path original = write("renamed.csv", 0);
+        assertEquals(FAIL_AT - 1, checkpoints.open(ImportEntity.EMPLOYEE, original, true, false).getResumeAfter());
+        // and resume=false starts it over, forgetting its rejects
+        assertEquals(0, checkpoints.open(ImportEntity.EMPLOYEE, original, false, false).getResumeAfter());
+        assertEquals(List.of(), rejects(original));
+    }
+
+    private ImportReport run(Path file, SheetReader reader) {
+        return pipeline.run(ImportEntity.EMPLOYEE, file, reader, new ImportReport());
+    }
+
+    // employees on rows 2..LAST_ROW with no emp_no on BAD_ROW; salaryOffset changes the content, not the layout
+    private Path write(String name, int salaryOffset) throws IOException {
+        StringBuilder csv = new StringBuilder("emp_no,name,dept_code,location,position,salary\n");
+        for (int row = 2; row <= LAST_ROW; row++)
+            csv.append(row == BAD_ROW ? "" : prefix + row).append(",Employee ").append(row)
+                    .append(",D1,,Staff,").append(1000 + row + salaryOffset).append('\n');
+        Path file = dir.resolve(name);
+        Files.writeString(file, csv);
+        fingerprints.add(ImportCheckpoints.fingerprint(file));
+        return file;
+    }
+
+    // hands rows on until the given sheet row, then fails like an interrupted read
+    private static SheetReader failingAt(int rowNum) {
+        return (file, sink) -> new CsvSheetReader().read(file, row -> {
+            if (row.getRowNum() + 1 == rowNum)
+                throw new IllegalStateException("injected failure at row " + rowNum);
+            sink.accept(row);
+        });
+    }
+
+    private List<Object> checkpoint(Path file) {
+        Map<String, Object> row = jdbc.queryForMap("SELECT last_row, rows_written, status FROM import_checkpoint "
+                + "WHERE entity = 'employee' AND file_fingerprint = ?", ImportCheckpoints.fingerprint(file));
+        return List.of(row.get("last_row"), row.get("rows_written"), row.get("status"));
+    }
+
+    private List<Integer> rejects(Path file) {
+        return jdbc.queryForList("SELECT row_num FROM import_reject WHERE entity = 'employee' "
+                + "AND file_fingerprint = ? ORDER BY row_num", Integer.class, ImportCheckpoints.fingerprint(file));
+    }
+
+    private int employees() {
+        return jdbc.queryForObject("SELECT count(*) FROM employee WHERE emp_no LIKE ?", Integer.class, prefix + "%");
+    }
+
+    private static ImportReport.Stage stage(ImportReport report, String name) {
+        return report.getStages().stream().filter(s -> s.getName().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,266 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ops_candidate_evaluation.backend.controller.QueryController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs generated aggregations against hand-written GROUP BY queries over the
+ * same data, and checks what the whitelists refuse. As in
+ * QueryImplementationsTest, the data lives in temporary tables named like the
+ * real ones on a connection of its own.
+ */
+@SpringBootTest
+class AggregateQueryServiceTest {
+
+    // a department name that would change the statement if it were ever spliced into the SQL text
+    private static final String HOSTILE = "O'Brien) OR (1=1";
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private AggregateQueryService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                dataSource.determinePassword());
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE location (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE department (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+            st.execute("CREATE TEMP TABLE employee (id BIGINT, emp_no VARCHAR(255), name VARCHAR(255), "
+                    + "dept_code VARCHAR(255), location_id BIGINT, position VARCHAR(255), salary NUMERIC(38,2))");
+        }
+        SingleConnectionDataSource single = new SingleConnectionDataSource(connection, true);
+        jdbc = new JdbcTemplate(single);
+        service = new AggregateQueryService(jdbc, new DataSourceTransactionManager(single));
+        ReflectionTestUtils.setField(service, "maxRows", 10_000);
+        ReflectionTestUtils.setField(service, "timeoutMs", 5_000L);
+        // only the aggregate endpoint is called
+        mvc = MockMvcBuilders.standaloneSetup(
+                new QueryController(null, null, null, new ObjectMapper(), null, service, null)).build();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void resultsMatchHandWrittenGroupBy() throws SQLException {
+        for (int seed = 0; seed < 20; seed++) {
+            load(new Random(seed));
+            String from = " FROM employee e LEFT JOIN department d ON d.code = e.dept_code "
+                    + "LEFT JOIN location l ON l.id = e.location_id ";
+            String location = "COALESCE(l.name, 'UNASSIGNED')";
+            String department = "COALESCE(NULLIF(d.name, ''), 'UNASSIGNED')";
+
+            assertEquals(jdbc.queryForList("SELECT " + location + " AS location, " + department + " AS department, "
+                            + "COUNT(*) AS count, SUM(e.salary) AS sum_salary, ROUND(AVG(e.salary), 2) AS avg_salary, "
+                            + "MIN(e.salary) AS min_salary, MAX(e.salary) AS max_salary" + from
+                            + "GROUP BY " + location + ", " + department + " ORDER BY 1, 2"),
+                    rows("location,department", "count,sum(salary),avg(salary),min(salary),max(salary)", null, null),
+                    "all functions, seed " + seed);
+
+            assertEquals(jdbc.queryForList("SELECT e.dept_code AS dept_code, COUNT(e.salary) AS count_salary" + from
+                            + "WHERE " + department + " IN ('Sales', 'Ops') AND e.salary >= 2000 "
+                            + "GROUP BY e.dept_code ORDER BY 2 DESC, 1"),
+                    rows("dept_code", "count(salary)", "department=Sales|Ops;salary>=2000", "-count_salary,dept_code"),
+                    "text and numeric filters, seed " + seed);
+
+            // != keeps the rows where the field is NULL
+            assertEquals(jdbc.queryForList("SELECT COUNT(*) AS count" + from
+                            + "WHERE e.position IS DISTINCT FROM 'Staff' AND " + department + " NOT IN ('Sales', 'Ops') "
+                            + "AND e.salary <> 1000"),
+                    rows(null, null, "position!=Staff;department!=Sales|Ops;salary!=1000", null),
+                    "negated filters, seed " + seed);
+
+            assertEquals(jdbc.queryForList("SELECT l.code AS location_code, e.position AS position, "
+                            + "MAX(e.salary) AS max_salary" + from + "WHERE e.salary < 5000 AND e.salary > 500 "
+                            + "GROUP BY l.code, e.position ORDER BY 3 DESC, 1, 2"),
+                    rows("location_code,position", "max(salary)", "salary<5000;salary>500",
+                            "-max_salary,location_code,position"),
+                    "measure filters and sort, seed " + seed);
+        }
+    }
+
+    @Test
+    void filterValuesAreBoundNotSpliced() throws SQLException {
+        load(new Random(1));
+        jdbc.update("INSERT INTO department (id, code, name) VALUES (100, 'DH', ?)", HOSTILE);
+        jdbc.update("INSERT INTO employee (id, emp_no, dept_code, salary) VALUES (1000, 'EH', 'DH', 1234.00)");
+
+        List<Map<String, Object>> rows = rows("department", "count,sum(salary)", "department=" + HOSTILE, null);
+
+        assertEquals(1, rows.size());
+        assertEquals(HOSTILE, rows.get(0).get("department"));
+        assertEquals(1L, rows.get(0).get("count"));
+        assertEquals(0, new BigDecimal("1234.00").compareTo((BigDecimal) rows.get(0).get("sum_salary")));
+        // a value that is SQL matches nothing rather than running
+        assertTrue(rows(null, "count", "dept_code=x') OR true --", null).stream()
+                .allMatch(r -> Long.valueOf(0).equals(r.get("count"))));
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM employee WHERE id = 1000", Integer.class));
+    }
+
+    @Test
+    void requestsOutsideTheWhitelistsAre400() throws Exception {
+        load(new Random(2));
+        List<String[]> invalid = List.of(
+                new String[] { "groupBy", "salary" },
+                new String[] { "groupBy", "location;DROP TABLE employee" },
+                new String[] { "groupBy", "location,location" },
+                new String[] { "metrics", "median(salary)" },
+                new String[] { "metrics", "sum(name)" },
+                new String[] { "metrics", "sum" },
+                new String[] { "metrics", "count(salary" },
+                new String[] { "filter", "salary~1000" },
+                new String[] { "filter", "department<Sales" },
+                new String[] { "filter", "emp_no=E1" },
+                new String[] { "filter", "salary>=abc" },
+                new String[] { "filter", "=Sales" },
+                new String[] { "sort", "salary" },
+                new String[] { "limit", "0" },
+                new String[] { "limit", "10001" });
+        for (String[] param : invalid)
+            mvc.perform(get("/api/query/aggregate").param(param[0], param[1]))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid aggregate query"));
+
+        jdbc.update("INSERT INTO employee (id, emp_no, dept_code) VALUES (1001, 'TA', 'TA'), (1002, 'TB', 'TB')");
+        mvc.perform(get("/api/query/aggregate").param("groupBy", "dept_code").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Truncated", "true"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void timeoutIs503() throws Exception {
+        jdbc.update("INSERT INTO employee (id, emp_no, dept_code, location_id, position, salary) "
+                + "SELECT g, 'E' || g, 'D' || g % 50, g % 20, 'P' || g % 7, g % 9000 FROM generate_series(1, 300000) g");
+        ReflectionTestUtils.setField(service, "timeoutMs", 1L);
+
+        DataAccessException ex = assertThrows(DataAccessException.class,
+                () -> service.aggregate("dept_code,location_code,position", "avg(salary)", null, null, null));
+        assertTrue(AggregateQueryService.isTimeout(ex));
+        mvc.perform(get("/api/query/aggregate").param("groupBy", "dept_code,location_code,position")
+                        .param("metrics", "avg(salary)"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Query timed out"));
+
+        // SET LOCAL: the connection is back to no timeout after the transaction
+        assertEquals("0", jdbc.queryForObject("SHOW statement_timeout", String.class));
+    }
+
+    @Test
+    void statementsAreGeneratedOncePerShape() throws SQLException {
+        load(new Random(3));
+        rows("department", "count", "salary>=1000", null);
+        rows("department", "count", "salary>=2000", null);
+        rows("department", "count", "salary>=3000", null);
+        assertEquals(new AggregateQueryService.Stats(1, 2, 1), service.stats());
+
+        // more shapes than the cache holds: it starts over instead of growing
+        List<String> groupings = new ArrayList<>();
+        for (String a : AggregateQueryService.DIMENSIONS.keySet()) {
+            groupings.add(a);
+            for (String b : AggregateQueryService.DIMENSIONS.keySet()) {
+                if (b.equals(a))
+                    continue;
+                groupings.add(a + "," + b);
+                for (String c : AggregateQueryService.DIMENSIONS.keySet())
+                    if (!c.equals(a) && !c.equals(b))
+                        groupings.add(a + "," + b + "," + c);
+            }
+        }
+        List<String> metrics = List.of("count", "sum(salary)", "avg(salary)", "min(salary)", "max(salary)",
+                "count(salary)", "count,sum(salary)", "count,avg(salary)", "count,min(salary)", "count,max(salary)",
+                "sum(salary),avg(salary)", "min(salary),max(salary)");
+        int shapes = 1;
+        for (String groupBy : groupings)
+            for (String m : metrics) {
+                service.aggregate(groupBy, m, null, null, 1);
+                shapes++;
+                assertTrue(service.stats().shapes() <= AggregateQueryService.MAX_SHAPES);
+            }
+        assertTrue(shapes > AggregateQueryService.MAX_SHAPES);
+        assertEquals(shapes, service.stats().misses());
+        assertEquals(shapes % AggregateQueryService.MAX_SHAPES, service.stats().shapes());
+    }
+
+    private List<Map<String, Object>> rows(String groupBy, String metrics, String filter, String sort) {
+        AggregateQueryService.Result result = service.aggregate(groupBy, metrics, filter, sort, null);
+        assertFalse(result.truncated());
+        return result.rows();
+    }
+
+    // a few locations and departments, with NULL, dangling and unnamed references
+    private void load(Random random) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("TRUNCATE employee, department, location");
+        }
+        int locations = 1 + random.nextInt(4);
+        int departments = 1 + random.nextInt(4);
+        for (int i = 1; i <= locations; i++)
+            jdbc.update("INSERT INTO location (id, code, name) VALUES (?, ?, ?)", i, "L" + i,
+                    random.nextInt(5) == 0 ? null : "Location " + i);
+        String[] names = { "Sales", "Ops", "UNASSIGNED", "", null };
+        for (int i = 1; i <= departments; i++)
+            jdbc.update("INSERT INTO department (id, code, name) VALUES (?, ?, ?)", i, "D" + i,
+                    names[random.nextInt(names.length)]);
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO employee (id, emp_no, name, dept_code, "
+                + "location_id, position, salary) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            int employees = random.nextInt(400);
+            for (int i = 1; i <= employees; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "E" + i);
+                ps.setString(3, "Employee " + i);
+                int dept = random.nextInt(10);
+                ps.setString(4, dept == 0 ? null : dept == 1 ? "DX" : "D" + (1 + random.nextInt(departments)));
+                int location = random.nextInt(10);
+                ps.setObject(5, location == 0 ? null : location == 1 ? 99L : 1L + random.nextInt(locations),
+                        Types.BIGINT);
+                ps.setString(6, random.nextBoolean() ? "Staff" : random.nextBoolean() ? "Lead" : null);
+                ps.setBigDecimal(7, random.nextInt(10) == 0 ? null
+                        : BigDecimal.valueOf((1 + random.nextInt(10)) * 500L + random.nextInt(2) * 25L, 2));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ThreadMode;
+import com.ops_candidate_evaluation.backend.model.ApiCallHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The write-behind against the real audit tables. Rows carry a route of the
+ * test's own, which is deleted from the history and the rollup afterwards.
+ * Where a test needs the buffer to fill up, the writer thread is started only
+ * after the rows are recorded.
+ */
+@SpringBootTest
+class ApiCallAuditWriterTest {
+
+    private static final int CAPACITY = 8;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private ThreadMode threads;
+
+    private final String route = "/test/audit/" + System.nanoTime();
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM api_call_history WHERE route = ?", route);
+        jdbc.update("DELETE FROM api_call_rollup WHERE route = ?", route);
+    }
+
+    @Test
+    void closeWritesEverythingQueuedBeforeIt() throws InterruptedException {
+        // neither a full batch nor the flush interval would write these
+        ApiCallAuditWriter writer = writer(1024, 500, 600_000, "drop", 1);
+        writer.start();
+        for (int i = 0; i < 300; i++)
+            writer.record(call(i % 3 == 0 ? 404 : 200));
+        writer.close();
+
+        ApiCallAuditWriter.Stats stats = writer.stats();
+        assertEquals(300, stats.enqueued());
+        assertEquals(300, stats.written());
+        assertEquals(0, stats.dropped());
+        assertEquals(300, history());
+        assertEquals(300, jdbc.queryForObject("SELECT COALESCE(SUM(calls), 0) FROM api_call_rollup WHERE route = ?",
+                Integer.class, route));
+        assertEquals(100, jdbc.queryForObject(
+                "SELECT COALESCE(SUM(calls), 0) FROM api_call_rollup WHERE route = ? AND status = 404",
+                Integer.class, route));
+
+        // nothing is taken once closed
+        writer.record(call(200));
+        assertEquals(1, writer.stats().dropped());
+        assertEquals(300, history());
+    }
+
+    @Test
+    void dropRefusesRowsWhileFull() throws InterruptedException {
+        ApiCallAuditWriter writer = writer(CAPACITY, 500, 10, "drop", 1);
+        for (int i = 0; i < CAPACITY + 5; i++)
+            writer.record(call(200));
+        assertEquals(CAPACITY, writer.stats().enqueued());
+        assertEquals(5, writer.stats().dropped());
+
+        writer.start();
+        writer.close();
+        assertEquals(CAPACITY, writer.stats().written());
+        assertEquals(CAPACITY, history());
+    }
+
+    @Test
+    void sampleKeepsOneInSampleRateOnceHalfFull() throws InterruptedException {
+        ApiCallAuditWriter writer = writer(CAPACITY, 500, 10, "sample", 3);
+        // below half full every row is taken
+        for (int i = 0; i < CAPACITY / 2; i++)
+            writer.record(call(200));
+        assertEquals(0, writer.stats().dropped());
+        // then one in three, until the buffer is full
+        for (int i = 0; i < 12; i++)
+            writer.record(call(200));
+        assertEquals(CAPACITY, writer.stats().enqueued());
+        assertEquals(8, writer.stats().dropped());
+        assertEquals(CAPACITY, writer.stats().queued());
+        // full: even the rows the sample would keep are dropped
+        for (int i = 0; i < 3; i++)
+            writer.record(call(200));
+        assertEquals(CAPACITY, writer.stats().enqueued());
+        assertEquals(11, writer.stats().dropped());
+
+        writer.start();
+        writer.close();
+        assertEquals(CAPACITY, history());
+    }
+
+    @Test
+    void blockWaitsForSpaceThenDrops() throws InterruptedException {
+        ApiCallAuditWriter writer = writer(CAPACITY, 500, 10, "block", 1);
+        for (int i = 0; i < CAPACITY; i++)
+            writer.record(call(200));
+
+        // nothing drains the buffer: the row waits out the timeout and is dropped
+        long started = System.nanoTime();
+        writer.record(call(200));
+        assertTrue(System.nanoTime() - started >= 50_000_000L, "waited for the block timeout");
+        assertEquals(1, writer.stats().dropped());
+
+        // with the writer running, a full buffer only delays the caller
+        writer.start();
+        for (int i = 0; i < 10 * CAPACITY; i++)
+            writer.record(call(200));
+        writer.close();
+        assertEquals(1, writer.stats().dropped());
+        assertEquals(11 * CAPACITY, writer.stats().written());
+        assertEquals(11 * CAPACITY, history());
+    }
+
+    private ApiCallAuditWriter writer(int bufferSize, int batchSize, long flushIntervalMs, String overflow,
+            int sampleRate) {
+        ApiCallAuditWriter writer = new ApiCallAuditWriter(jdbc, tx, threads, bufferSize, batchSize, flushIntervalMs,
+                overflow, sampleRate, 50);
+        assertEquals(bufferSize, writer.stats().capacity());
+        return writer;
+    }
+
+    private ApiCallHistory call(int status) {
+        ApiCallHistory call = new ApiCallHistory();
+        call.setTimestamp(Instant.now());
+        call.setMethod("GET");
+        call.setPath(route);
+        call.setRoute(route);
+        call.setStatus(status);
+        call.setUserIdentifier("audit-test");
+        return call;
+    }
+
+    private int history() {
+        return jdbc.queryForObject("SELECT count(*) FROM api_call_history WHERE route = ?", Integer.class, route);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.model.Employee;
+import com.ops_candidate_evaluation.backend.model.EmployeeBatchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Batch create/update/delete against the real employee table. Every test
+ * writes employees whose emp_no starts with a prefix of its own and deletes
+ * them afterwards.
+ */
+@SpringBootTest
+class EmployeeBatchServiceTest {
+
+    @Autowired
+    private EmployeeBatchService batch;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String prefix = "TBATCH-" + System.nanoTime() + "-";
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM employee WHERE emp_no LIKE ?", prefix + "%");
+    }
+
+    @Test
+    void repeatedEmpNoInOneRequestIsADuplicate() {
+        batch.create(List.of(employee("existing")));
+
+        List<EmployeeBatchResult> results = batch.create(List.of(
+                employee("a"), employee("a"), employee("b"), employee("existing"), employee(null)));
+
+        assertEquals(List.of("created", "duplicate", "created", "duplicate", "invalid"), statuses(results));
+        assertNotNull(results.get(0).id());
+        assertNull(results.get(1).id());
+        assertEquals(1, count("a"));
+        assertEquals(results.get(0).id(), idOf("a"));
+    }
+
+    @Test
+    void updateToAnExistingEmpNoFailsOnlyThatItem() {
+        List<EmployeeBatchResult> created = batch.create(
+                IntStream.range(0, 5).mapToObj(i -> employee("u" + i)).toList());
+        List<Employee> updates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Employee e = employee("u" + i);
+            e.setId(created.get(i).id());
+            e.setName("renamed " + i);
+            updates.add(e);
+        }
+        // u2 takes u4's emp_no, which u4 keeps
+        updates.get(2).setEmpNo(prefix + "u4");
+
+        List<EmployeeBatchResult> results = batch.update(updates);
+
+        assertEquals(List.of("updated", "updated", "conflict", "updated", "updated"), statuses(results));
+        assertNotNull(results.get(2).message());
+        for (int i : List.of(0, 1, 3, 4))
+            assertEquals("renamed " + i, nameOf("u" + i));
+        // the failed item was rolled back to its savepoint, the rest of the chunk kept
+        assertEquals("Employee u2", nameOf("u2"));
+    }
+
+    @Test
+    void unknownIdsAreNotFound() {
+        Long id = batch.create(List.of(employee("known"))).get(0).id();
+        Employee known = employee("known");
+        known.setId(id);
+        known.setName("changed");
+        Employee unknown = employee("unknown");
+        unknown.setId(-1L);
+
+        assertEquals(List.of("updated", "not_found"), statuses(batch.update(List.of(known, unknown))));
+        assertEquals(0, count("unknown"));
+
+        List<EmployeeBatchResult> deleted = batch.delete(List.of(-1L, id));
+        assertEquals(List.of("not_found", "deleted"), statuses(deleted));
+        assertEquals(0, count("known"));
+    }
+
+    @Test
+    void batchesLargerThanAChunk() {
+        int n = EmployeeBatchService.CHUNK_SIZE * 2 + 7;
+        List<Employee> items = new ArrayList<>(IntStream.range(0, n).mapToObj(i -> employee("c" + i)).toList());
+        // a repeat in the second chunk, of an emp_no from the first
+        items.set(EmployeeBatchService.CHUNK_SIZE + 3, employee("c0"));
+
+        List<EmployeeBatchResult> created = batch.create(items);
+
+        assertEquals(n, created.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, created.get(i).index());
+            assertEquals(i == EmployeeBatchService.CHUNK_SIZE + 3 ? "duplicate" : "created", created.get(i).status());
+        }
+        assertEquals(n - 1, jdbc.queryForObject("SELECT count(*) FROM employee WHERE emp_no LIKE ?", Integer.class,
+                prefix + "%"));
+
+        // a conflict in the last chunk sends only that chunk item by item
+        List<Employee> updates = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (created.get(i).id() == null)
+                continue;
+            Employee e = employee("c" + i);
+            e.setId(created.get(i).id());
+            e.setSalary(BigDecimal.valueOf(i));
+            updates.add(e);
+            ids.add(e.getId());
+        }
+        updates.get(updates.size() - 1).setEmpNo(prefix + "c1");
+        List<EmployeeBatchResult> updated = batch.update(updates);
+        for (int i = 0; i < updated.size(); i++)
+            assertEquals(i == updated.size() - 1 ? "conflict" : "updated", updated.get(i).status(), "item " + i);
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(jdbc.queryForObject(
+                "SELECT salary FROM employee WHERE emp_no = ?", BigDecimal.class, prefix + "c7")));
+
+        List<EmployeeBatchResult> deleted = batch.delete(ids);
+        assertEquals(ids.size(), deleted.stream().filter(r -> "deleted".equals(r.status())).count());
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM employee WHERE emp_no LIKE ?", Integer.class,
+                prefix + "%"));
+    }
+
+    private Employee employee(String key) {
+        Employee e = new Employee();
+        e.setEmpNo(key != null ? prefix + key : null);
+        e.setName("Employee " + key);
+        e.setDeptCode("D1");
+        e.setPosition("Staff");
+        e.setSalary(new BigDecimal("1000.00"));
+        return e;
+    }
+
+    private int count(String key) {
+        return jdbc.queryForObject("SELECT count(*) FROM employee WHERE emp_no = ?", Integer.class, prefix + key);
+    }
+
+    private Long idOf(String key) {
+        return jdbc.queryForObject("SELECT id FROM employee WHERE emp_no = ?", Long.class, prefix + key);
+    }
+
+    private String nameOf(String key) {
+        return jdbc.queryForObject("SELECT name FROM employee WHERE emp_no = ?", String.class, prefix + key);
+    }
+
+    private static List<String> statuses(List<EmployeeBatchResult> results) {
+        return results.stream().map(EmployeeBatchResult::status).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.model.EmployeeMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs random searches against the index while employees are added, replaced
+ * and removed, and requires the matches a scan of every employee finds, in the
+ * same order. A small alphabet makes most queries match many employees, so the
+ * limit and the order across match kinds matter.
+ */
+class EmployeeSearchIndexTest {
+
+    private static final int SEEDS = 20;
+    private static final String LETTERS = "abcAB é-.1";
+
+    @Test
+    void matchesScan() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            EmployeeSearchIndex index = new EmployeeSearchIndex();
+            // insertion order, as the index keeps it; a replaced employee moves to the end
+            Map<Long, String[]> employees = new LinkedHashMap<>();
+            for (int step = 0; step < 3000; step++) {
+                long id = random.nextInt(500);
+                if (random.nextInt(5) == 0) {
+                    index.remove(id);
+                    employees.remove(id);
+                } else {
+                    String empNo = "E" + random.nextInt(100_000);
+                    String name = random.nextInt(20) == 0 ? null : text(random, random.nextInt(12));
+                    index.put(id, empNo, name);
+                    employees.remove(id);
+                    employees.put(id, new String[] { empNo, name });
+                }
+                if (step % 10 == 0) {
+                    String q = query(random, employees);
+                    int limit = 1 + random.nextInt(30);
+                    assertEquals(scan(employees, q, limit), index.search(q, limit),
+                            "seed " + seed + ", step " + step + ", q '" + q + "', limit " + limit);
+                }
+            }
+        }
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            s.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        return s.toString();
+    }
+
+    // mostly a piece of an indexed text, in either case
+    private static String query(Random random, Map<Long, String[]> employees) {
+        int length = 1 + random.nextInt(5);
+        if (employees.isEmpty() || random.nextInt(4) == 0)
+            return text(random, length);
+        String[] e = new ArrayList<>(employees.values()).get(random.nextInt(employees.size()));
+        String field = e[1] == null || random.nextBoolean() ? e[0] : e[1];
+        if (field.length() < length)
+            return text(random, length);
+        int from = random.nextInt(field.length() - length + 1);
+        String q = field.substring(from, from + length);
+        return random.nextBoolean() ? q.toUpperCase() : q;
+    }
+
+    private static List<EmployeeMatch> scan(Map<Long, String[]> employees, String q, int limit) {
+        List<EmployeeMatch> matches = new ArrayList<>();
+        String[] kinds = { EmployeeSearchIndex.PREFIX, EmployeeSearchIndex.WORD, EmployeeSearchIndex.SUBSTRING };
+        for (int kind = 0; kind < (q.length() >= 3 ? 3 : 2); kind++) {
+            for (Map.Entry<Long, String[]> e : employees.entrySet()) {
+                String empNo = e.getValue()[0], name = e.getValue()[1];
+                if (Math.min(kind(empNo, q), kind(name, q)) == kind && matches.size() < limit)
+                    matches.add(new EmployeeMatch(e.getKey(), empNo, name, kinds[kind]));
+            }
+        }
+        return matches;
+    }
+
+    // 0 prefix, 1 start of a later word, 2 elsewhere, 3 not at all
+    private static int kind(String field, String q) {
+        if (field == null)
+            return 3;
+        String f = lower(field), l = lower(q);
+        if (f.startsWith(l))
+            return 0;
+        for (int p = 1; p < f.length(); p++)
+            if (Character.isLetterOrDigit(f.charAt(p)) && !Character.isLetterOrDigit(f.charAt(p - 1))
+                    && f.startsWith(l, p))
+                return 1;
+        return f.contains(l) ? 2 : 3;
+    }
+
+    private static String lower(String s) {
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++)
+            b.append(Character.toLowerCase(s.charAt(i)));
+        return b.toString();
+    }
+}
@@ -0,0 +1,190 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.controller.EmployeeController;
+import com.ops_candidate_evaluation.backend.model.EmployeePage;
+import com.ops_candidate_evaluation.backend.model.EmployeeSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset pages of employee against a plain ORDER BY emp_no scan of the same
+ * rows. As in QueryImplementationsTest, the rows live in a temporary employee
+ * table on a connection of its own; emp_no values mix case, digits of
+ * different length and punctuation, so the comparison also covers the
+ * collation.
+ */
+@SpringBootTest
+class EmployeeServiceTest {
+
+    private static final String[] DEPTS = { "D1", "D2", "D3", null };
+    private static final Long[] LOCATIONS = { 1L, 2L, 3L, null };
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    private Connection connection;
+    private JdbcTemplate jdbc;
+    private EmployeeService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                dataSource.determinePassword());
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE employee (LIKE public.employee INCLUDING ALL)");
+        }
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        // only page() is called, which needs neither the repository nor events
+        service = new EmployeeService(null, null, jdbc);
+        mvc = MockMvcBuilders.standaloneSetup(new EmployeeController(service, null, null)).build();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void walkingAllPagesReturnsTheOrderedScan() throws SQLException {
+        load(new Random(5), 700);
+        for (String dept : Arrays.asList("D1", "D3", "D9", "", null))
+            for (Long location : Arrays.asList(1L, 3L, 9L, null))
+                for (int limit : new int[] { 1, 7, 100, EmployeeService.MAX_PAGE_SIZE }) {
+                    String what = "dept=" + dept + " location=" + location + " limit=" + limit;
+                    List<EmployeeSummary> expected = scan(dept, location);
+                    List<EmployeeSummary> walked = new ArrayList<>();
+                    Set<String> cursors = new HashSet<>();
+                    String cursor = null;
+                    do {
+                        EmployeePage page = service.page(limit, cursor, dept, location);
+                        assertTrue(page.items().size() <= limit, what);
+                        // a cursor only on a full page, and only when more rows follow
+                        if (page.nextCursor() != null) {
+                            assertEquals(limit, page.items().size(), what);
+                            assertTrue(cursors.add(page.nextCursor()), what);
+                        }
+                        walked.addAll(page.items());
+                        cursor = page.nextCursor();
+                    } while (cursor != null);
+                    assertEquals(expected, walked, what);
+                }
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws SQLException {
+        load(new Random(6), 20);
+        EmployeePage all = service.page(20, null, null, null);
+        assertEquals(20, all.items().size());
+        assertNull(all.nextCursor());
+
+        EmployeePage first = service.page(19, null, null, null);
+        EmployeePage last = service.page(19, first.nextCursor(), null, null);
+        assertEquals(1, last.items().size());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void tamperedCursorIs400() throws Exception {
+        load(new Random(7), 30);
+        String cursor = service.page(10, null, null, null).nextCursor();
+        String empNo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).substring(2);
+        mvc.perform(get("/api/employee").param("limit", "10").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(10));
+
+        // "e:E1" encodes to ZTpFMQ; the last character's low four bits are padding, so ZTpFMR decodes the same
+        assertEquals("ZTpFMQ",
+                Base64.getUrlEncoder().withoutPadding().encodeToString("e:E1".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("e:E1", new String(Base64.getUrlDecoder().decode("ZTpFMR"), StandardCharsets.UTF_8));
+        service.page(10, "ZTpFMQ", null, null);
+        List<String> tampered = List.of(
+                "not a cursor!",
+                cursor.substring(1),
+                "x" + cursor,
+                cursor + "=",
+                cursor + " ",
+                "ZTpFMR",
+                Base64.getEncoder().encodeToString(("e:" + empNo).getBytes(StandardCharsets.UTF_8)) + "==",
+                Base64.getUrlEncoder().withoutPadding().encodeToString(empNo.getBytes(StandardCharsets.UTF_8)),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(("x:" + empNo).getBytes(StandardCharsets.UTF_8)));
+        for (String bad : tampered) {
+            assertThrows(IllegalArgumentException.class, () -> service.page(10, bad, null, null), bad);
+            mvc.perform(get("/api/employee").param("cursor", bad))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid page request"));
+        }
+    }
+
+    @Test
+    void limitOutsideTheRangeIs400() throws Exception {
+        load(new Random(8), 5);
+        for (String limit : List.of("0", "-1", String.valueOf(EmployeeService.MAX_PAGE_SIZE + 1)))
+            mvc.perform(get("/api/employee").param("limit", limit))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid page request"));
+        for (String limit : List.of("1", String.valueOf(EmployeeService.MAX_PAGE_SIZE)))
+            mvc.perform(get("/api/employee").param("limit", limit))
+                    .andExpect(status().isOk());
+    }
+
+    private List<EmployeeSummary> scan(String dept, Long location) {
+        return jdbc.query("SELECT id, emp_no, name, dept_code, location_id, position, salary FROM employee "
+                        + "WHERE (? = '' OR dept_code = ?) AND (?::bigint IS NULL OR location_id = ?) ORDER BY emp_no",
+                new DataClassRowMapper<>(EmployeeSummary.class), dept == null ? "" : dept, dept, location, location);
+    }
+
+    private void load(Random random, int n) throws SQLException {
+        String[] prefixes = { "E", "e", "E-", "E ", "A", "Z", "É" };
+        Set<String> empNos = new HashSet<>();
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO employee (emp_no, name, dept_code, "
+                + "location_id, position, salary) VALUES (?, ?, ?, ?, ?, ?)")) {
+            while (empNos.size() < n) {
+                String empNo = prefixes[random.nextInt(prefixes.length)] + random.nextInt(5000);
+                if (!empNos.add(empNo))
+                    continue;
+                ps.setString(1, empNo);
+                ps.setString(2, "Employee " + empNo);
+                ps.setString(3, DEPTS[random.nextInt(DEPTS.length)]);
+                ps.setObject(4, LOCATIONS[random.nextInt(LOCATIONS.length)], Types.BIGINT);
+                ps.setString(5, "Staff");
+                ps.setBigDecimal(6, BigDecimal.valueOf(random.nextInt(100_000), 2));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
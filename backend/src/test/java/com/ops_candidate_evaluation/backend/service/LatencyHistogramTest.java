@@ -0,0 +1,84 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueOnceWithinThreePercent() {
+        assertEquals(0, LatencyHistogram.index(0));
+        assertEquals(63, LatencyHistogram.index(63));
+        assertEquals(63, LatencyHistogram.upperBound(63));
+        long previous = -1;
+        // every bucket holds the values from just above the previous bucket's bound up to its own
+        for (int i = 0; i < LatencyHistogram.index((1L << 36) - 1); i++) {
+            long upper = LatencyHistogram.upperBound(i);
+            assertTrue(upper > previous, "bucket " + i);
+            assertEquals(i, LatencyHistogram.index(previous + 1), "lowest value of bucket " + i);
+            assertEquals(i, LatencyHistogram.index(upper), "highest value of bucket " + i);
+            long lower = previous + 1;
+            assertTrue(upper - lower <= lower / 32, "bucket " + i + " spans " + lower + ".." + upper);
+            previous = upper;
+        }
+        assertEquals((1L << 36) - 1, LatencyHistogram.upperBound(LatencyHistogram.index((1L << 36) - 1)));
+    }
+
+    @Test
+    void percentilesOfAKnownDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++)
+            histogram.record(v);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.count());
+        assertEquals(100_000L * 100_001 / 2, snapshot.sumMicros());
+        assertEquals(100_000, snapshot.maxMicros());
+        assertWithin(50_000, snapshot.percentile(0.50));
+        assertWithin(99_000, snapshot.percentile(0.99));
+        assertEquals(1, snapshot.percentile(0.0));
+        assertEquals(100_000, snapshot.percentile(1.0));
+    }
+
+    @Test
+    void percentilesOfASkewedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(11);
+        long[] values = new long[200_000];
+        for (int i = 0; i < values.length; i++) {
+            // mostly around a millisecond, with a long tail
+            values[i] = (long) (1000 * Math.exp(random.nextGaussian()));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        for (double q : new double[] { 0.5, 0.9, 0.99, 0.999 })
+            assertWithin(values[(int) Math.ceil(q * values.length) - 1], snapshot.percentile(q));
+        assertEquals(values[values.length - 1], snapshot.percentile(1.0));
+    }
+
+    @Test
+    void emptyAndOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().percentile(0.99));
+
+        histogram.record(-5);
+        histogram.record(1L << 40);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count());
+        assertEquals(0, snapshot.percentile(0.5));
+        // past the tracked range the last bucket's bound is reported
+        assertEquals((1L << 36) - 1, snapshot.percentile(1.0));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected * 0.03,
+                "expected " + expected + " within 3%, was " + actual);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToAPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+        assertEquals(16, new MpscRingBuffer<>(9).capacity());
+        assertEquals(1024, new MpscRingBuffer<>(1000).capacity());
+        assertEquals(1024, new MpscRingBuffer<>(1024).capacity());
+        assertEquals(2048, new MpscRingBuffer<>(1025).capacity());
+        for (int n = 1; n <= 5000; n++) {
+            int capacity = new MpscRingBuffer<>(n).capacity();
+            assertTrue(capacity >= n && Integer.bitCount(capacity) == 1, "capacity " + capacity + " for " + n);
+            assertTrue(capacity <= Math.max(4, 2 * n - 1), "no more than the next power of two for " + n);
+        }
+    }
+
+    @Test
+    void offerFailsOnlyWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        Random random = new Random(7);
+        int next = 0, expected = 0, queued = 0;
+        // enough steps to go round the ring many times, at every fill level
+        for (int step = 0; step < 100_000; step++) {
+            if (random.nextInt(3) > 0) {
+                boolean accepted = buffer.offer(next);
+                assertEquals(queued < buffer.capacity(), accepted, "offer with " + queued + " queued");
+                if (accepted) {
+                    next++;
+                    queued++;
+                }
+            } else {
+                Integer item = buffer.poll();
+                if (queued == 0) {
+                    assertNull(item);
+                } else {
+                    assertEquals(expected++, item);
+                    queued--;
+                }
+            }
+            assertEquals(queued, buffer.size());
+        }
+        assertTrue(next > 10 * buffer.capacity());
+    }
+
+    @Test
+    void everyItemFromManyProducersComesOutOnce() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 200_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++)
+                        while (!buffer.offer(new long[] { producer, i }))
+                            Thread.yield();
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        long[] nextFrom = new long[producers];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        start.countDown();
+        for (int received = 0; received < producers * perProducer; ) {
+            long[] item = buffer.poll();
+            if (item == null) {
+                assertTrue(System.nanoTime() < deadline, "only " + received + " items arrived");
+                Thread.yield();
+                continue;
+            }
+            // in order per producer, so nothing is lost, repeated or reordered
+            assertEquals(nextFrom[(int) item[0]]++, item[1], "producer " + item[0]);
+            received++;
+        }
+        for (Thread t : threads)
+            t.join();
+
+        assertNull(failure.get());
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+        for (long n : nextFrom)
+            assertEquals(perProducer, n);
+    }
+}
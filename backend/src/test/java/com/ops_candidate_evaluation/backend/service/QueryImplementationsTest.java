@@ -0,0 +1,140 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs every implementation of q1, q2 and q3 (except the q3 snapshot, which
+ * reads the materialized view) over randomized data and requires the same
+ * rows, down to the scale of the decimals. Every dataset lives in temporary tables
+ * named like the real ones, on a connection of its own, so the unqualified
+ * table names in the queries resolve to them and nothing else sees them.
+ */
+@SpringBootTest
+class QueryImplementationsTest {
+
+    private static final int DATASETS = 50;
+
+    @Autowired
+    private DataSourceProperties dataSource;
+
+    @Test
+    void implementationsAgree() throws SQLException {
+        try (Connection c = DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                dataSource.determinePassword())) {
+            try (Statement st = c.createStatement()) {
+                st.execute("CREATE TEMP TABLE location (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+                st.execute("CREATE TEMP TABLE department (id BIGINT, code VARCHAR(255), name VARCHAR(255))");
+                st.execute("CREATE TEMP TABLE employee (id BIGINT, emp_no VARCHAR(255), name VARCHAR(255), "
+                        + "dept_code VARCHAR(255), location_id BIGINT, position VARCHAR(255), salary NUMERIC(38,2))");
+            }
+            SingleConnectionDataSource single = new SingleConnectionDataSource(c, true);
+            DataSourceTransactionManager txManager = new DataSourceTransactionManager(single);
+            for (int seed = 0; seed < DATASETS; seed++) {
+                load(c, new Random(seed));
+                // a new store per dataset: the in-memory columns are built on first use and never see the TRUNCATE
+                QueryService queries = new QueryService(single, txManager,
+                        new EmployeeColumnStore(single, txManager, event -> { }, new ReadRouting()));
+
+                // (dept_code, emp_no) is unique, so q1 has exactly one order
+                List<Map<String, Object>> q1 = queries.q1("lateral");
+                for (String impl : List.of("window", "stream", "memory"))
+                    assertEquals(q1, queries.q1(impl), "q1 " + impl + ", seed " + seed);
+
+                // rows tied on the ORDER BY keys may come in any order, so compare as sorted lists
+                List<Map<String, Object>> q2 = queries.q2("sql");
+                List<Map<String, Object>> q2Memory = queries.q2("memory");
+                assertEquals(sorted(q2), sorted(q2Memory), "q2 memory, seed " + seed);
+                assertEquals(keys(q2, "location_name"), keys(q2Memory, "location_name"), "q2 row order, seed " + seed);
+
+                List<Map<String, Object>> q3 = queries.q3("live");
+                for (String impl : List.of("window", "memory")) {
+                    List<Map<String, Object>> rows = queries.q3(impl);
+                    assertEquals(sorted(q3), sorted(rows), "q3 " + impl + ", seed " + seed);
+                    assertEquals(keys(q3, "location_name", "department_name", "salary"),
+                            keys(rows, "location_name", "department_name", "salary"),
+                            "q3 " + impl + " row order, seed " + seed);
+                }
+            }
+        }
+    }
+
+    // A few locations and departments, with NULL, dangling and unnamed references,
+    // and salaries drawn from a small set so groups hold duplicates.
+    private static void load(Connection c, Random random) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("TRUNCATE employee, department, location");
+        }
+        int locations = 1 + random.nextInt(4);
+        int departments = 1 + random.nextInt(4);
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO location (id, code, name) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= locations; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "L" + i);
+                ps.setString(3, random.nextInt(5) == 0 ? null : "Location " + i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        String[] names = { "Sales", "Ops", "UNASSIGNED", "", null };
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO department (id, code, name) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= departments; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "D" + i);
+                ps.setString(3, names[random.nextInt(names.length)]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        int employees = random.nextInt(400);
+        int salaries = 1 + random.nextInt(20);
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO employee (id, emp_no, name, dept_code, "
+                + "location_id, position, salary) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= employees; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "E" + i);
+                ps.setString(3, "Employee " + i);
+                int dept = random.nextInt(10);
+                ps.setString(4, dept == 0 ? null : dept == 1 ? "DX" : "D" + (1 + random.nextInt(departments)));
+                int location = random.nextInt(10);
+                ps.setObject(5, location == 0 ? null : location == 1 ? 99L : 1L + random.nextInt(locations),
+                        Types.BIGINT);
+                ps.setString(6, random.nextBoolean() ? "Staff" : null);
+                ps.setBigDecimal(7, random.nextInt(10) == 0 ? null
+                        : BigDecimal.valueOf((1 + random.nextInt(salaries)) * 500L + random.nextInt(2) * 25L, 2));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static List<String> sorted(List<Map<String, Object>> rows) {
+        return rows.stream().map(Map::toString).sorted().toList();
+    }
+
+    private static List<String> keys(List<Map<String, Object>> rows, String... columns) {
+        return rows.stream()
+                .map(r -> Arrays.stream(columns).map(c -> String.valueOf(r.get(c))).collect(Collectors.joining("|")))
+                .toList();
+    }
+}
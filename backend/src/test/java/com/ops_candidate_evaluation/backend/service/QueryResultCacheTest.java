@@ -0,0 +1,181 @@
+package com.ops_candidate_evaluation.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ops_candidate_evaluation.backend.config.ReadRouting;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Versioning of cached report results. Most tests use a cache of their own;
+ * the last one goes through the application's cache and /api/query/q2, where a
+ * DataChangeEvent published in the context has to reach the cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryResultCacheTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    private final QueryResultCache cache = new QueryResultCache(new ObjectMapper(), new ReadRouting(), true, 1024);
+
+    @Test
+    void loadCachesTheResultAtTheCurrentVersion() {
+        assertNull(cache.get("q"));
+
+        QueryResultCache.Entry loaded = cache.load("q", rows(1, 2));
+
+        assertEquals("[{\"n\":1},{\"n\":2}]", new String(loaded.json(), StandardCharsets.UTF_8));
+        assertEquals(cache.currentEtag(), loaded.etag());
+        assertSame(loaded, cache.get("q"));
+        // loaded once: a second load returns the entry without running the query
+        assertSame(loaded, cache.load("q", sink -> {
+            throw new AssertionError("query ran again");
+        }));
+        assertEquals(1, cache.stats().misses());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void writeDuringTheLoadIsNeverCachedAsCurrent() {
+        String before = cache.currentEtag();
+        assertNull(cache.get("q"));
+
+        // the data changes while the query runs, as a concurrent write would
+        QueryResultCache.Entry loaded = cache.load("q", sink -> {
+            rows(1).accept(sink);
+            cache.onDataChange(new DataChangeEvent(DataChangeEvent.EMPLOYEE));
+        });
+
+        // served to this caller under the version it was read at, which is no longer current
+        assertEquals(before, loaded.etag());
+        assertNotEquals(cache.currentEtag(), loaded.etag());
+        assertFalse(cache.notModified(loaded.etag()));
+        assertNull(cache.get("q"));
+        assertEquals(0, cache.stats().entries());
+
+        // the next load reads again and is kept
+        QueryResultCache.Entry reloaded = cache.load("q", rows(2));
+        assertEquals(cache.currentEtag(), reloaded.etag());
+        assertSame(reloaded, cache.get("q"));
+    }
+
+    @Test
+    void writeBetweenGetAndLoadIsSeenByTheLoad() {
+        cache.load("q", rows(1));
+        String old = cache.currentEtag();
+
+        cache.onDataChange(new DataChangeEvent(DataChangeEvent.DEPARTMENT));
+        assertNull(cache.get("q"));
+        QueryResultCache.Entry loaded = cache.load("q", rows(2));
+
+        assertNotEquals(old, loaded.etag());
+        assertEquals(cache.currentEtag(), loaded.etag());
+        assertEquals("[{\"n\":2}]", new String(cache.get("q").json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void dataChangeDropsEveryEntry() {
+        cache.load("q1", rows(1));
+        cache.load("q2", rows(2));
+        assertEquals(2, cache.stats().entries());
+        long version = cache.stats().version();
+
+        cache.onDataChange(new DataChangeEvent(DataChangeEvent.EMPLOYEE, List.of(1L)));
+
+        assertEquals(version + 1, cache.stats().version());
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().bytes());
+        assertNull(cache.get("q1"));
+        assertNull(cache.get("q2"));
+    }
+
+    @Test
+    void entryOverTheLimitIsServedButNotKept() {
+        QueryResultCache.Entry loaded = cache.load("big", rows(new int[200]));
+
+        assertTrue(loaded.json().length > 1024);
+        assertNull(cache.get("big"));
+        assertEquals(1, cache.stats().tooLarge());
+    }
+
+    @Test
+    void ifNoneMatchAcceptsTheCurrentTagInAnyForm() {
+        String current = cache.currentEtag();
+        assertTrue(cache.notModified(current));
+        assertTrue(cache.notModified("*"));
+        assertTrue(cache.notModified("W/" + current));
+        assertTrue(cache.notModified("\"other\", " + current));
+        assertTrue(cache.notModified("\"other\",W/" + current + " , \"more\""));
+        assertEquals(5, cache.stats().notModified());
+
+        assertFalse(cache.notModified(null));
+        assertFalse(cache.notModified("\"other\""));
+        assertFalse(cache.notModified(current.replace("\"", "")));
+        cache.onDataChange(new DataChangeEvent(DataChangeEvent.EMPLOYEE));
+        assertFalse(cache.notModified(current));
+        assertFalse(cache.notModified("\"other\", W/" + current));
+        assertTrue(cache.notModified("*"));
+        assertEquals(6, cache.stats().notModified());
+    }
+
+    @Test
+    void endpointAnswers304WithTheCurrentEtagUntilTheDataChanges() throws Exception {
+        String etag = mvc.perform(get("/api/query/q2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag != null && etag.startsWith("\""));
+
+        for (String ifNoneMatch : List.of(etag, "W/" + etag, "*", "\"other\", " + etag, "\"other\", W/" + etag))
+            mvc.perform(get("/api/query/q2").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mvc.perform(get("/api/query/q2").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string("X-Cache", "HIT"));
+
+        events.publishEvent(new DataChangeEvent(DataChangeEvent.EMPLOYEE));
+
+        String changed = mvc.perform(get("/api/query/q2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache", "MISS"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        mvc.perform(get("/api/query/q2").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, changed));
+    }
+
+    // one column n with the given values
+    private static Consumer<RowSink> rows(int... values) {
+        return sink -> {
+            sink.columns(List.of("n"));
+            for (int v : values)
+                sink.row(new Object[] { v });
+            sink.end();
+        };
+    }
+}